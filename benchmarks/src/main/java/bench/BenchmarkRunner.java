@@ -0,0 +1,52 @@
+package bench;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}.
+ * <p>
+ * It accepts the usual JMH command line options (benchmark regex, {@code -p}, {@code -f}, {@code -wi}, ...)
+ * and always adds the GC profiler, so every run also reports the allocation rate
+ * ({@code gc.alloc.rate.norm}, in bytes per operation) and the GC counts.
+ * <p>
+ * Usage:
+ * <pre>
+ *   java -jar target/benchmarks.jar                        // run everything
+ *   java -jar target/benchmarks.jar Deque -p size=1024     // run the Deque benchmarks with one size
+ *   java -jar target/benchmarks.jar -l                     // list the benchmarks
+ * </pre>
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, IOException {
+        CommandLineOptions commandLineOptions;
+        try {
+            commandLineOptions = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            System.err.println("Error parsing command line: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+                || commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats()) {
+            // Let JMH's own launcher handle the help and listing options
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
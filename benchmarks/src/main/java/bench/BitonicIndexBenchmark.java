@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares answering a batch of targets with repeated {@link BitonicSearch#bitonicSearchPacked(int[], int)}
+ * calls (one peak search per target) against {@link BitonicIndex#searchAll(int[])}, on sorted and unsorted batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitonicIndexBenchmark {
+    private static final float STEP_VARIANCE = 4f;
+
+    @Param({ "65536", "4194304" })
+    public int size;
+
+    @Param({ "1024", "65536" })
+    public int batch;
+
+    private int[] array;
+    private BitonicIndex index;
+    private int[] unsortedTargets;
+    private int[] sortedTargets;
+
+    @Setup
+    public void setUp() {
+        int peakValue = size * (int) Math.ceil(STEP_VARIANCE) / 2;
+        array = BitonicSearch.generateBitonicArray(size, peakValue, STEP_VARIANCE);
+        index = new BitonicIndex(array);
+        Random rand = new Random(42);
+        unsortedTargets = new int[batch];
+        for (int i = 0; i < batch; i++) {
+            unsortedTargets[i] = rand.nextInt(peakValue);
+        }
+        sortedTargets = unsortedTargets.clone();
+        Arrays.sort(sortedTargets);
+    }
+
+    @Benchmark
+    public long[] repeatedBitonicSearch() {
+        long[] results = new long[batch];
+        for (int i = 0; i < batch; i++) {
+            results[i] = BitonicSearch.bitonicSearchPacked(array, unsortedTargets[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public long[] indexUnsorted() {
+        return index.searchAll(unsortedTargets);
+    }
+
+    @Benchmark
+    public long[] indexSorted() {
+        return index.searchAll(sortedTargets);
+    }
+}
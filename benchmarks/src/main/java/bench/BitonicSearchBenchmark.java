@@ -0,0 +1,64 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a single bitonic search query, with and without the result objects.
+ * Targets are drawn from a precomputed random table, so consecutive queries do not hit the same path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitonicSearchBenchmark {
+    private static final float STEP_VARIANCE = 4f;
+    private static final int TARGET_COUNT = 1 << 12; // A power of 2, so targets can be cycled with a mask
+
+    @Param({ "1024", "65536", "4194304" })
+    public int size;
+
+    private int[] array;
+    private int[] targets;
+    private int nextTarget;
+
+    @Setup
+    public void setUp() {
+        int peakValue = size * (int) Math.ceil(STEP_VARIANCE) / 2;
+        array = BitonicSearch.generateBitonicArray(size, peakValue, STEP_VARIANCE);
+        Random rand = new Random(42);
+        targets = new int[TARGET_COUNT];
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            targets[i] = rand.nextInt(peakValue);
+        }
+    }
+
+    @Benchmark
+    public int bitonicSearch() {
+        int target = targets[nextTarget++ & (TARGET_COUNT - 1)];
+        return BitonicSearch.bitonicSearch(array, target).index;
+    }
+
+    /**
+     * The allocation-free variant; gc.alloc.rate.norm should be 0 B/op.
+     */
+    @Benchmark
+    public long bitonicSearchPacked() {
+        int target = targets[nextTarget++ & (TARGET_COUNT - 1)];
+        return BitonicSearch.bitonicSearchPacked(array, target);
+    }
+}
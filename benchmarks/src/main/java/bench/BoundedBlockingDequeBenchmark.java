@@ -0,0 +1,179 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Producer/consumer handoff through {@link BoundedBlockingDeque} against a {@link Deque} wrapped in
+ * {@code synchronized} blocks with {@code wait}/{@code notifyAll}, which is what it replaces.
+ * <p>
+ * Each group has 2 producers and 2 consumers by default; change it with {@code -tg p,c}.
+ * <ul>
+ *   <li>{@code synchronizedDeque}: one item per call, one monitor for both sides.</li>
+ *   <li>{@code twoLock}: one item per call with {@code offerLast}/{@code pollFirst}.</li>
+ *   <li>{@code twoLockBatch}: {@code addAll} of {@link #BATCH} items, and {@code pollFirst} followed by
+ *       {@code drainTo} of up to {@link #BATCH} items.</li>
+ * </ul>
+ * The {@code items} counter is the number of items consumers received, so it compares the groups in
+ * items per microsecond whatever the batch size. Run with {@code -bm sample} for the latency
+ * percentiles of each call. All waits are timed, so threads never hang when the iteration ends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedBlockingDequeBenchmark {
+    private static final int BATCH = 64;
+
+    private static final long WAIT_MILLIS = 10;
+
+    private static final Integer ITEM = 1_000_000;
+
+    /**
+     * The {@code synchronized} wrapper around {@link Deque} that the blocking deque replaces.
+     */
+    static final class SynchronizedBoundedDeque {
+        private final Deque<Integer> deque;
+        private final int capacity;
+
+        SynchronizedBoundedDeque(int capacity) {
+            this.deque = new Deque<>(capacity);
+            this.capacity = capacity;
+        }
+
+        synchronized boolean offerLast(Integer item, long millis) throws InterruptedException {
+            if (deque.size() == capacity) {
+                wait(millis);
+                if (deque.size() == capacity) {
+                    return false;
+                }
+            }
+            deque.addLast(item);
+            notifyAll();
+            return true;
+        }
+
+        synchronized Integer pollFirst(long millis) throws InterruptedException {
+            if (deque.isEmpty()) {
+                wait(millis);
+                if (deque.isEmpty()) {
+                    return null;
+                }
+            }
+            Integer item = deque.removeFirst();
+            notifyAll();
+            return item;
+        }
+    }
+
+    @State(Scope.Group)
+    public static class Queues {
+        @Param({ "1024" })
+        public int capacity;
+
+        SynchronizedBoundedDeque synchronizedDeque;
+        BoundedBlockingDeque<Integer> blockingDeque;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            synchronizedDeque = new SynchronizedBoundedDeque(capacity);
+            blockingDeque = new BoundedBlockingDeque<>(capacity);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Buffers {
+        final Integer[] batch = new Integer[BATCH];
+        final Integer[] drained = new Integer[BATCH];
+
+        @Setup
+        public void setUp() {
+            java.util.Arrays.fill(batch, ITEM);
+        }
+    }
+
+    /**
+     * Per-consumer count of the items received, reported by JMH as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ItemCounter {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedDeque")
+    @GroupThreads(2)
+    public boolean synchronizedProducer(Queues queues) throws InterruptedException {
+        return queues.synchronizedDeque.offerLast(ITEM, WAIT_MILLIS);
+    }
+
+    @Benchmark
+    @Group("synchronizedDeque")
+    @GroupThreads(2)
+    public Integer synchronizedConsumer(Queues queues, ItemCounter counter) throws InterruptedException {
+        Integer item = queues.synchronizedDeque.pollFirst(WAIT_MILLIS);
+        if (item != null) {
+            counter.items++;
+        }
+        return item;
+    }
+
+    @Benchmark
+    @Group("twoLock")
+    @GroupThreads(2)
+    public boolean twoLockProducer(Queues queues) throws InterruptedException {
+        return queues.blockingDeque.offerLast(ITEM, WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("twoLock")
+    @GroupThreads(2)
+    public Integer twoLockConsumer(Queues queues, ItemCounter counter) throws InterruptedException {
+        Integer item = queues.blockingDeque.pollFirst(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        if (item != null) {
+            counter.items++;
+        }
+        return item;
+    }
+
+    @Benchmark
+    @Group("twoLockBatch")
+    @GroupThreads(2)
+    public int batchProducer(Queues queues, Buffers buffers) throws InterruptedException {
+        return queues.blockingDeque.addAll(buffers.batch, 0, BATCH, WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("twoLockBatch")
+    @GroupThreads(2)
+    public int batchConsumer(Queues queues, Buffers buffers, ItemCounter counter) throws InterruptedException {
+        if (queues.blockingDeque.pollFirst(WAIT_MILLIS, TimeUnit.MILLISECONDS) == null) {
+            return 0;
+        }
+        int received = 1 + queues.blockingDeque.drainTo(buffers.drained, BATCH - 1);
+        counter.items += received;
+        return received;
+    }
+}
@@ -0,0 +1,77 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tail latency of single operations on {@link ChunkedDeque} against {@link Deque}.
+ * <p>
+ * Each call does one operation on a deque that grows from empty to {@code size} items and shrinks back,
+ * over and over, so the samples include every resize of {@link Deque} (O(n) copies) and every block
+ * link and unlink of {@link ChunkedDeque}. Compare the {@code p0.999}, {@code p0.9999} and
+ * {@code p1.00} rows: the median is about the same, the tail is not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ChunkedDequeBenchmark {
+    @Param({ "65536", "1048576" })
+    public int size;
+
+    private static final Integer ITEM = 1_000_000;
+
+    private Deque<Integer> deque;
+    private ChunkedDeque<Integer> chunked;
+
+    /**
+     * Whether the next calls add (true) or remove (false) on each deque.
+     */
+    private boolean dequeGrowing;
+    private boolean chunkedGrowing;
+
+    @Setup
+    public void setUp() {
+        deque = new Deque<>();
+        chunked = new ChunkedDeque<>();
+        dequeGrowing = true;
+        chunkedGrowing = true;
+    }
+
+    @Benchmark
+    public Integer deque() {
+        if (dequeGrowing) {
+            deque.addLast(ITEM);
+            dequeGrowing = deque.size() < size;
+            return ITEM;
+        }
+        Integer item = deque.removeFirst();
+        dequeGrowing = deque.isEmpty();
+        return item;
+    }
+
+    @Benchmark
+    public Integer chunked() {
+        if (chunkedGrowing) {
+            chunked.addLast(ITEM);
+            chunkedGrowing = chunked.size() < size;
+            return ITEM;
+        }
+        Integer item = chunked.removeFirst();
+        chunkedGrowing = chunked.isEmpty();
+        return item;
+    }
+}
@@ -0,0 +1,172 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Deque}: filling it with {@code size} items and draining it again
+ * (which goes through every grow and shrink resize), and iterating over a full deque.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DequeBenchmark {
+    @Param({ "16", "1024", "65536" })
+    public int size;
+
+    /**
+     * Boxed values created once, so the benchmarks measure the deque and not Integer.valueOf.
+     */
+    private Integer[] values;
+
+    private Deque<Integer> full;
+
+    @Setup
+    public void setUp() {
+        values = new Integer[size];
+        full = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            full.addLast(values[i]);
+        }
+    }
+
+    /**
+     * Queue usage: addLast then removeFirst.
+     */
+    @Benchmark
+    public int addLastRemoveFirst() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += deque.removeFirst();
+        }
+        return sum;
+    }
+
+    /**
+     * Queue usage with a deque presized to {@code size}: no resize at all.
+     */
+    @Benchmark
+    public int addLastRemoveFirstPresized() {
+        Deque<Integer> deque = new Deque<>(size);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += deque.removeFirst();
+        }
+        return sum;
+    }
+
+    /**
+     * Stack usage: addFirst then removeFirst.
+     */
+    @Benchmark
+    public int addFirstRemoveFirst() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addFirst(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += deque.removeFirst();
+        }
+        return sum;
+    }
+
+    /**
+     * Steady-state push/pop on a full deque: rotates every item once from the front to the back.
+     * No resize happens, so this isolates the cost of the index wrap-around.
+     */
+    @Benchmark
+    public Deque<Integer> rotate() {
+        for (int i = 0; i < size; i++) {
+            full.addLast(full.removeFirst());
+        }
+        return full;
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Integer value : full) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Fills a new deque one item at a time; compare with {@link #addAllLast()}.
+     */
+    @Benchmark
+    public Deque<Integer> fillOneByOne() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(values[i]);
+        }
+        return deque;
+    }
+
+    /**
+     * Fills a new deque with one bulk call (one resize, two array copies at most).
+     */
+    @Benchmark
+    public Deque<Integer> addAllLast() {
+        Deque<Integer> deque = new Deque<>();
+        deque.addAllLast(values, 0, size);
+        return deque;
+    }
+
+    /**
+     * Iterates over a snapshot; compare with {@link #iterate()} for the cost of the copy.
+     */
+    @Benchmark
+    public int snapshotIterate() {
+        int sum = 0;
+        java.util.Iterator<Integer> it = full.snapshotIterator();
+        while (it.hasNext()) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    /**
+     * Walks the two contiguous runs of the array; compare with {@link #iterate()}.
+     */
+    @Benchmark
+    public int forEach() {
+        int[] sum = new int[1];
+        full.forEach(value -> sum[0] += value);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long sequentialStream() {
+        return StreamSupport.stream(full.spliterator(), false).mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return StreamSupport.stream(full.spliterator(), true).mapToLong(Integer::longValue).sum();
+    }
+}
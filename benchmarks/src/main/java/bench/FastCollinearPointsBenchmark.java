@@ -0,0 +1,66 @@
+package bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link FastCollinearPoints} on random distinct points, plus a few horizontal lines
+ * of collinear points so that segments are actually found.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastCollinearPointsBenchmark {
+    private static final int COORDINATE_BOUND = 32768;
+    private static final int POINTS_PER_LINE = 5;
+
+    @Param({ "64", "512", "2048" })
+    public int n;
+
+    private Point[] points;
+
+    @Setup
+    public void setUp() {
+        Random rand = new Random(42);
+        HashSet<Long> used = new HashSet<>();
+        points = new Point[n];
+        int count = 0;
+        // Horizontal lines, on rows that random points never use (odd y)
+        for (int line = 0; count + POINTS_PER_LINE <= n / 4; line++) {
+            for (int j = 0; j < POINTS_PER_LINE; j++) {
+                int x = j * 100 + line;
+                int y = 2 * line + 1;
+                used.add((long) x * COORDINATE_BOUND + y);
+                points[count++] = new Point(x, y);
+            }
+        }
+        while (count < n) {
+            int x = rand.nextInt(COORDINATE_BOUND);
+            int y = 2 * rand.nextInt(COORDINATE_BOUND / 2);
+            if (used.add((long) x * COORDINATE_BOUND + y)) {
+                points[count++] = new Point(x, y);
+            }
+        }
+    }
+
+    @Benchmark
+    public int fastCollinearPoints() {
+        return new FastCollinearPoints(points).numberOfSegments();
+    }
+}
@@ -0,0 +1,84 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+/**
+ * Benchmarks {@link Percolation#open(int, int)} and {@link Percolation#percolates()}
+ * on an n-by-n grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PercolationBenchmark {
+    @Param({ "64", "256", "1024" })
+    public int n;
+
+    /**
+     * The order in which sites are opened, as flattened 0-based indices.
+     */
+    private int[] siteOrder;
+
+    /**
+     * A grid with about 60% of its sites open, close to the percolation threshold.
+     */
+    private Percolation nearThreshold;
+
+    @Setup
+    public void setUp() {
+        siteOrder = StdRandom.permutation(n * n);
+        nearThreshold = new Percolation(n);
+        for (int i = 0; i < siteOrder.length * 6 / 10; i++) {
+            nearThreshold.open(siteOrder[i] / n + 1, siteOrder[i] % n + 1);
+        }
+    }
+
+    /**
+     * One Monte Carlo trial: opens sites in random order until the system percolates.
+     */
+    @Benchmark
+    public int openUntilPercolates() {
+        Percolation perc = new Percolation(n);
+        for (int i = 0; i < siteOrder.length; i++) {
+            perc.open(siteOrder[i] / n + 1, siteOrder[i] % n + 1);
+            if (perc.percolates()) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Opens every site, without checking for percolation.
+     */
+    @Benchmark
+    public int openAll() {
+        Percolation perc = new Percolation(n);
+        for (int i = 0; i < siteOrder.length; i++) {
+            perc.open(siteOrder[i] / n + 1, siteOrder[i] % n + 1);
+        }
+        return perc.numberOfOpenSites();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean percolates() {
+        return nearThreshold.percolates();
+    }
+}
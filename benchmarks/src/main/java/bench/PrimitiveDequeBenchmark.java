@@ -0,0 +1,108 @@
+package bench;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link IntDeque} with {@code Deque<Integer>} for int task IDs.
+ * <p>
+ * Throughput: the {@code fillDrain*} benchmarks push {@code size} IDs and pop them all.
+ * The boxed version includes {@code Integer.valueOf}, as a real caller would pay it.
+ * <p>
+ * Memory: {@code fill*} only builds the full deque; its {@code gc.alloc.rate.norm} divided by {@code size}
+ * is the number of bytes allocated per element (array growth included, and the {@code Integer}
+ * objects for the boxed version).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveDequeBenchmark {
+    /**
+     * IDs start above the Integer cache (-128..127), like real task IDs.
+     */
+    private static final int FIRST_ID = 1_000_000;
+
+    @Param({ "1024", "65536", "1048576" })
+    public int size;
+
+    private IntDeque fullPrimitive;
+    private Deque<Integer> fullBoxed;
+
+    @Setup
+    public void setUp() {
+        fullPrimitive = fillPrimitive();
+        fullBoxed = fillBoxed();
+    }
+
+    @Benchmark
+    public IntDeque fillPrimitive() {
+        IntDeque deque = new IntDeque();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(FIRST_ID + i);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public Deque<Integer> fillBoxed() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(FIRST_ID + i);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public long fillDrainPrimitive() {
+        IntDeque deque = fillPrimitive();
+        long sum = 0;
+        while (!deque.isEmpty()) {
+            sum += deque.removeFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long fillDrainBoxed() {
+        Deque<Integer> deque = fillBoxed();
+        long sum = 0;
+        while (!deque.isEmpty()) {
+            sum += deque.removeFirst();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iteratePrimitive() {
+        long sum = 0;
+        PrimitiveIterator.OfInt it = fullPrimitive.iterator();
+        while (it.hasNext()) {
+            sum += it.nextInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iterateBoxed() {
+        long sum = 0;
+        for (Integer id : fullBoxed) {
+            sum += id;
+        }
+        return sum;
+    }
+}
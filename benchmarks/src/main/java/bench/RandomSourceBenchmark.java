@@ -0,0 +1,86 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dequeue-heavy {@link RandomizedQueue} workloads with each {@link RandomSource}.
+ * <p>
+ * Every thread has its own queue ({@code Scope.Thread}), so in the multi-threaded benchmark the only
+ * shared state is inside the random source: {@code std} is one {@link java.util.Random} for the JVM,
+ * the others are per queue or per thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomSourceBenchmark {
+    @Param({ "4096" })
+    public int size;
+
+    @Param({ "std", "threadLocal", "splittable", "xoshiro" })
+    public String source;
+
+    private Integer[] values;
+
+    private RandomizedQueue<Integer> queue;
+
+    @Setup
+    public void setUp() {
+        RandomSource random;
+        switch (source) {
+            case "threadLocal":
+                random = RandomSource.threadLocal();
+                break;
+            case "splittable":
+                random = RandomSource.splittable(System.nanoTime());
+                break;
+            case "xoshiro":
+                random = RandomSource.xoshiro(System.nanoTime());
+                break;
+            default:
+                random = RandomSource.stdRandom();
+        }
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+        }
+        queue = new RandomizedQueue<>(size, ResizePolicy.DEFAULT, random);
+    }
+
+    private int fillAndDrain() {
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int singleThread() {
+        return fillAndDrain();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourThreads() {
+        return fillAndDrain();
+    }
+}
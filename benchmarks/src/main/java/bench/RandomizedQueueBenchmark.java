@@ -0,0 +1,151 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link RandomizedQueue}: filling and draining it, sampling, and iterating.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomizedQueueBenchmark {
+    @Param({ "16", "1024", "65536" })
+    public int size;
+
+    /**
+     * Boxed values created once, so the benchmarks measure the queue and not Integer.valueOf.
+     */
+    private Integer[] values;
+
+    private RandomizedQueue<Integer> full;
+
+    private Integer[] buffer;
+
+    @Setup
+    public void setUp() {
+        values = new Integer[size];
+        buffer = new Integer[size];
+        full = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            full.enqueue(values[i]);
+        }
+    }
+
+    @Benchmark
+    public int enqueueDequeue() {
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+
+    /**
+     * Same as {@link #enqueueDequeue()} with a queue presized to {@code size}: no resize at all.
+     */
+    @Benchmark
+    public int enqueueDequeuePresized() {
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(values[i]);
+        }
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer sample() {
+        return full.sample();
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Integer value : full) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Takes only the first 16 items of a random iteration, the case the lazy shuffle is for.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int iterateFirst16() {
+        int sum = 0;
+        java.util.Iterator<Integer> it = full.iterator();
+        for (int i = 0; i < 16 && it.hasNext(); i++) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    /**
+     * Fills a queue, then dequeues all but 16 items one call at a time (resizing on the way down).
+     */
+    @Benchmark
+    public int dequeueMostOneByOne() {
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(values[i]);
+        }
+        int sum = 0;
+        for (int i = 16; i < size; i++) {
+            sum += queue.dequeue();
+        }
+        return sum;
+    }
+
+    /**
+     * The same with one dequeue(k) call, which resizes once at the end.
+     */
+    @Benchmark
+    public int dequeueMostBatch() {
+        RandomizedQueue<Integer> queue = new RandomizedQueue<>();
+        for (int i = 0; i < size; i++) {
+            queue.enqueue(values[i]);
+        }
+        int k = Math.max(0, size - 16);
+        queue.dequeue(buffer, k);
+        int sum = 0;
+        for (int i = 0; i < k; i++) {
+            sum += buffer[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Samples 16 distinct items from the full queue.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Integer[] sample16() {
+        full.sample(buffer, Math.min(16, size));
+        return buffer;
+    }
+}
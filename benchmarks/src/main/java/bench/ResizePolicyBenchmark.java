@@ -0,0 +1,73 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A {@link Deque} whose size swings across the default shrink point, under each {@link ResizePolicy}.
+ * <p>
+ * The deque is first filled to {@code size} items (a power of 2, so the array is full), then each call
+ * removes items down to just below {@code size / 4} and adds them back to just above {@code size / 2}.
+ * With the default policy every swing shrinks and grows the array again; with hysteresis or no
+ * shrinking it copies nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResizePolicyBenchmark {
+    @Param({ "1024", "65536" })
+    public int size;
+
+    @Param({ "default", "hysteresis8", "never" })
+    public String policy;
+
+    private static final Integer ITEM = 1_000_000;
+
+    private Deque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        ResizePolicy resizePolicy;
+        switch (policy) {
+            case "hysteresis8":
+                resizePolicy = ResizePolicy.hysteresis(8);
+                break;
+            case "never":
+                resizePolicy = ResizePolicy.NEVER_SHRINK;
+                break;
+            default:
+                resizePolicy = ResizePolicy.DEFAULT;
+        }
+        deque = new Deque<>(1, resizePolicy);
+        for (int i = 0; i < size; i++) {
+            deque.addLast(ITEM);
+        }
+    }
+
+    @Benchmark
+    public int swing() {
+        int low = size / 4 - 1;
+        int high = size / 2 + 1;
+        while (deque.size() > low) {
+            deque.removeFirst();
+        }
+        while (deque.size() < high) {
+            deque.addLast(ITEM);
+        }
+        return deque.size();
+    }
+}
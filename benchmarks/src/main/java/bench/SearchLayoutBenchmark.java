@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the search strategies of a single bitonic lookup, on arrays that fit in L2 (256 KB),
+ * about the size of L3 (4 MB), and well beyond L3 (64 MB):
+ * <ul>
+ *   <li>{@code staticBinary} / {@code staticBranchless}: the static BitonicSearch methods, which also find the peak.</li>
+ *   <li>{@code index}: a prepared {@link BitonicIndex}, with the {@code mode} parameter selecting
+ *       the binary, branchless or Eytzinger search.</li>
+ * </ul>
+ * Targets come from a large random table, so consecutive lookups touch unrelated parts of the array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SearchLayoutBenchmark {
+    private static final float STEP_VARIANCE = 4f;
+    private static final int TARGET_COUNT = 1 << 16; // A power of 2, so targets can be cycled with a mask
+
+    @Param({ "65536", "1048576", "16777216" })
+    public int size;
+
+    @Param({ "BINARY", "BRANCHLESS", "EYTZINGER" })
+    public BitonicIndex.SearchMode mode;
+
+    private int[] array;
+    private BitonicIndex index;
+    private int[] targets;
+    private int nextTarget;
+
+    @Setup
+    public void setUp() {
+        int peakValue = size * (int) Math.ceil(STEP_VARIANCE) / 2;
+        array = BitonicSearch.generateBitonicArray(size, peakValue, STEP_VARIANCE);
+        index = new BitonicIndex(array, mode);
+        Random rand = new Random(42);
+        targets = new int[TARGET_COUNT];
+        for (int i = 0; i < TARGET_COUNT; i++) {
+            targets[i] = rand.nextInt(peakValue);
+        }
+    }
+
+    @Benchmark
+    public long index() {
+        return index.search(targets[nextTarget++ & (TARGET_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public long staticBinary() {
+        return BitonicSearch.bitonicSearchPacked(array, targets[nextTarget++ & (TARGET_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public long staticBranchless() {
+        return BitonicSearch.bitonicSearchBranchless(array, targets[nextTarget++ & (TARGET_COUNT - 1)]);
+    }
+}
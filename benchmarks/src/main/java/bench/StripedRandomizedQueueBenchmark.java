@@ -0,0 +1,75 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A shared randomized pool: each call takes a random worker out of the pool and puts it back,
+ * through {@link StripedRandomizedQueue} and through a {@link RandomizedQueue} behind one lock,
+ * which is what it replaces.
+ * <p>
+ * Runs with 4 threads by default; compare thread counts with {@code -t 1}, {@code -t 2}, ... and
+ * read the throughput (take/put pairs per microsecond, summed over threads).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class StripedRandomizedQueueBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Pools {
+        @Param({ "1024" })
+        public int poolSize;
+
+        RandomizedQueue<Integer> lockedQueue;
+        StripedRandomizedQueue<Integer> stripedQueue;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            lockedQueue = new RandomizedQueue<>(RandomSource.splittable(42));
+            stripedQueue = new StripedRandomizedQueue<>();
+            for (int i = 0; i < poolSize; i++) {
+                lockedQueue.enqueue(i);
+                stripedQueue.enqueue(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer locked(Pools pools) {
+        RandomizedQueue<Integer> queue = pools.lockedQueue;
+        Integer worker;
+        synchronized (queue) {
+            worker = queue.dequeue();
+        }
+        synchronized (queue) {
+            queue.enqueue(worker);
+        }
+        return worker;
+    }
+
+    @Benchmark
+    public Integer striped(Pools pools) {
+        Integer worker = pools.stripedQueue.poll();
+        if (worker != null) {
+            pools.stripedQueue.enqueue(worker);
+        }
+        return worker;
+    }
+}
@@ -0,0 +1,46 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link QuadraticThreeSum#threeSum(int[], int)} on arrays of unique values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreeSumBenchmark {
+    @Param({ "250", "1000", "4000" })
+    public int n;
+
+    private int[] values;
+
+    private final QuadraticThreeSum threeSum = new QuadraticThreeSum();
+
+    @Setup
+    public void setUp() {
+        values = QuadraticThreeSum.generateUniqueValues(n, n);
+    }
+
+    /**
+     * threeSum sorts its input in place, so every invocation works on a fresh unsorted copy.
+     */
+    @Benchmark
+    public int threeSum() {
+        return threeSum.threeSum(values.clone(), 0).size();
+    }
+}
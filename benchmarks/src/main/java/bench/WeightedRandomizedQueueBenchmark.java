@@ -0,0 +1,91 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Weighted draws from {@link WeightedRandomizedQueue} at sizes up to 10^7.
+ * <ul>
+ *   <li>{@code sample}: one O(log n) descent of the Fenwick tree.</li>
+ *   <li>{@code dequeueEnqueue}: take a weighted random item out and put it back with its weight,
+ *       as a pool with priorities would.</li>
+ *   <li>{@code sampleLinearScan}: the O(n) baseline, a scan of the weights until the running sum
+ *       passes r.</li>
+ *   <li>{@code uniformSample}: {@link RandomizedQueue#sample()} at the same size, the unweighted floor.</li>
+ * </ul>
+ * The 10^7 queue needs about 500 MB (an Integer, a weight and a tree node per item), hence the heap size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WeightedRandomizedQueueBenchmark {
+
+    @Param({ "1000", "1000000", "10000000" })
+    public int size;
+
+    private WeightedRandomizedQueue<Integer> weighted;
+    private RandomizedQueue<Integer> uniform;
+    private double[] weights;
+    private double totalWeight;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        weights = new double[size];
+        weighted = new WeightedRandomizedQueue<>(size, ResizePolicy.DEFAULT, RandomSource.xoshiro(42));
+        uniform = new RandomizedQueue<>(size, ResizePolicy.DEFAULT, RandomSource.xoshiro(42));
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1 + random.nextDouble() * 99;
+            totalWeight += weights[i];
+            Integer item = i;
+            weighted.enqueue(item, weights[i]);
+            uniform.enqueue(item);
+        }
+    }
+
+    @Benchmark
+    public Integer sample() {
+        return weighted.sample();
+    }
+
+    @Benchmark
+    public Integer dequeueEnqueue() {
+        Integer item = weighted.dequeue();
+        weighted.enqueue(item, weights[item]);
+        return item;
+    }
+
+    @Benchmark
+    public int sampleLinearScan() {
+        double remaining = random.nextDouble() * totalWeight;
+        for (int i = 0; i < size; i++) {
+            remaining -= weights[i];
+            if (remaining < 0) {
+                return i;
+            }
+        }
+        return size - 1;
+    }
+
+    @Benchmark
+    public Integer uniformSample() {
+        return uniform.sample();
+    }
+}
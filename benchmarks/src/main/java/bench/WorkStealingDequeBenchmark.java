@@ -0,0 +1,131 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link WorkStealingDeque} against a {@link Deque} guarded by {@code synchronized},
+ * with one owner thread and a group of thieves.
+ * <p>
+ * The owner adds two tasks and takes one back (a net gain of one task per call), and takes an extra one
+ * when its backlog passes {@link #BACKLOG}, so the deque stays bounded when thieves are slow.
+ * Thieves take tasks from the front as fast as they can. A thief call that finds the deque empty still
+ * counts as an operation, so the {@code stolen} counter reports the rate of tasks actually stolen.
+ * <p>
+ * The default group is 1 owner and 3 thieves. To scale up to all cores, pass the thread distribution
+ * on the command line, e.g. {@code -tg 1,7} for 8 cores.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkStealingDequeBenchmark {
+    /**
+     * The owner keeps at most about this many tasks in its deque.
+     */
+    private static final int BACKLOG = 4096;
+
+    private static final Integer TASK = 1_000_000;
+
+    @State(Scope.Group)
+    public static class WorkStealingState {
+        WorkStealingDeque<Integer> deque;
+
+        @Setup
+        public void setUp() {
+            deque = new WorkStealingDeque<>(BACKLOG * 2);
+        }
+    }
+
+    @State(Scope.Group)
+    public static class SynchronizedState {
+        Deque<Integer> deque;
+
+        @Setup
+        public void setUp() {
+            deque = new Deque<>(BACKLOG * 2);
+        }
+    }
+
+    /**
+     * Per-thief count of the tasks actually stolen, reported by JMH as a rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class StealCounter {
+        public long stolen;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            stolen = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("workStealing")
+    @GroupThreads(1)
+    public Integer owner(WorkStealingState state) {
+        WorkStealingDeque<Integer> deque = state.deque;
+        deque.addLast(TASK);
+        deque.addLast(TASK);
+        if (deque.size() > BACKLOG) {
+            deque.removeLast();
+        }
+        return deque.removeLast();
+    }
+
+    @Benchmark
+    @Group("workStealing")
+    @GroupThreads(3)
+    public Integer thief(WorkStealingState state, StealCounter counter) {
+        Integer task = state.deque.steal();
+        if (task != null) {
+            counter.stolen++;
+        }
+        return task;
+    }
+
+    @Benchmark
+    @Group("synchronizedDeque")
+    @GroupThreads(1)
+    public Integer owner(SynchronizedState state) {
+        Deque<Integer> deque = state.deque;
+        synchronized (deque) {
+            deque.addLast(TASK);
+            deque.addLast(TASK);
+            if (deque.size() > BACKLOG) {
+                deque.removeLast();
+            }
+            return deque.removeLast();
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedDeque")
+    @GroupThreads(3)
+    public Integer thief(SynchronizedState state, StealCounter counter) {
+        Deque<Integer> deque = state.deque;
+        synchronized (deque) {
+            if (deque.isEmpty()) {
+                return null;
+            }
+            counter.stolen++;
+            return deque.removeFirst();
+        }
+    }
+}
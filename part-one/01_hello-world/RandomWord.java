@@ -1,3 +1,5 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
@@ -10,6 +12,14 @@ import edu.princeton.cs.algs4.StdRandom;
  * has an equal probability of being selected, regardless of the total number
  * of words in the input.
  * <p>
+ * Instead of a coin flip per word (the i-th word replaces the champion with probability 1/i), it draws
+ * how many words pass before the next replacement, as in Algorithm L (K.-H. Li, 1994). The champion
+ * changes about ln(n) times in n words, so the loop makes O(log n) random draws instead of n, and
+ * between replacements it only counts words down.
+ * <p>
+ * The class only depends on algs4, so it can be submitted on its own. FastRandomWord in
+ * 04_stack-and-queue reads files and standard input faster, and samples k words in parallel.
+ * <p>
  * Usage:
  * <pre>
  *   java RandomWord
@@ -20,16 +30,64 @@ import edu.princeton.cs.algs4.StdRandom;
  */
 public class RandomWord {
     public static void main(String[] args) {
-        Integer i = 0;
-        String champion = null;
-        while (!StdIn.isEmpty()) {
-            i++;
-            String word = StdIn.readString();
-            // Select a random word with decreasing probability
-            if (StdRandom.bernoulli(1.0 / i)) {
-                champion = word;
+        StdOut.println(champion(stdInWords()));
+    }
+
+    /**
+     * Picks a word uniformly at random, with Algorithm L for a reservoir of one word. After the first
+     * word, it draws the number of words to pass before the next champion, and reads past them.
+     * @param words the words.
+     * @return the chosen word, or an empty string if there are no words.
+     */
+    static String champion(Iterator<String> words) {
+        if (!words.hasNext()) {
+            return "";
+        }
+        String champion = words.next();
+        double w = 1.0 - StdRandom.uniformDouble();
+        while (true) {
+            long toSkip = skipLength(w, 1.0 - StdRandom.uniformDouble());
+            for (long skipped = 0; skipped < toSkip; skipped++) {
+                if (!words.hasNext()) {
+                    return champion;
+                }
+                words.next();
+            }
+            if (!words.hasNext()) {
+                return champion;
             }
+            champion = words.next();
+            w *= 1.0 - StdRandom.uniformDouble();
         }
-        StdOut.println(champion == null ? "" : champion);
+    }
+
+    /**
+     * Returns the words of standard input as an iterator.
+     * @return the iterator, reading StdIn as it goes.
+     */
+    private static Iterator<String> stdInWords() {
+        return new Iterator<String>() {
+            public boolean hasNext() {
+                return !StdIn.isEmpty();
+            }
+
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more input");
+                }
+                return StdIn.readString();
+            }
+        };
+    }
+
+    /**
+     * Returns the number of words to pass before the next one becomes the champion, in Algorithm L:
+     * a geometric variable with success probability w, drawn by inversion as floor(log(u) / log(1 - w)).
+     * @param w the largest random key so far, in (0, 1].
+     * @param u a uniform random number in (0, 1].
+     * @return the number of words to skip (Long.MAX_VALUE once w is too small to ever replace again).
+     */
+    private static long skipLength(double w, double u) {
+        return (long) Math.floor(Math.log(u) / Math.log1p(-w));
     }
 }
@@ -1,6 +1,9 @@
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import edu.princeton.cs.algs4.StdRandom;
 
 public class RandomWordTest {
     @Test
@@ -23,4 +26,24 @@ public class RandomWordTest {
         assertTrue(result.equals("apple") || result.equals("banana") || result.equals("cherry") || result.equals("date"),
             "Output should be one of the input words, but was: " + result);
     }
+
+    @Test
+    public void testChampionOfAPlainIteratorIsUniform() {
+        // The first, middle and last words must all win 1/n of the time, although few draws are made
+        final int n = 7;
+        final int trials = 35000;
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            words.add(Integer.toString(i));
+        }
+        StdRandom.setSeed(3);
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; t++) {
+            counts[Integer.parseInt(RandomWord.champion(words.iterator()))]++;
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(trials / (double) n, counts[i], trials / (double) n * 0.06, "word " + i);
+        }
+        assertEquals("", RandomWord.champion(new ArrayList<String>().iterator()));
+    }
 }
@@ -0,0 +1,292 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code BitonicIndex} class answers many searches on the same bitonic array.
+ * <p>
+ * {@link BitonicSearch#bitonicSearch(int[], int)} looks for the peak again on every call,
+ * although the peak of a fixed array never changes. This class finds the peak once, in the constructor,
+ * and then every search is just the two binary searches.
+ * <p>
+ * Batches of targets are answered by {@link #searchAll(int[])}:
+ * <ul>
+ *   <li>If the targets are sorted in ascending order, both halves are swept once, like a merge:
+ *       the position in the ascending half only moves right, and the position in the descending half
+ *       only moves left. Each move is an exponential (galloping) search from the previous position,
+ *       so a batch of q targets costs O(q log(n / q)) compares, never more than O(q log n) nor O(n + q).</li>
+ *   <li>Otherwise, the targets are searched independently, in parallel for large batches.</li>
+ * </ul>
+ * Single searches (and unsorted batches) can use one of three {@link SearchMode}s: a classic binary search,
+ * a branchless binary search, or a search in an Eytzinger (BFS-order) copy of each half,
+ * which is the fastest once the array no longer fits in the CPU caches.
+ * <p>
+ * Results use the packed format of {@link BitonicSearch#bitonicSearchPacked(int[], int)}.
+ * <p>
+ * The array is not copied, so it must not be modified while the index is in use.
+ */
+public class BitonicIndex {
+    /**
+     * Batches smaller than this are never searched in parallel, the fork/join overhead would dominate.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    /**
+     * How single targets are searched in each half of the array.
+     */
+    public enum SearchMode {
+        /**
+         * Classic binary search of each half, on the array itself (as {@link BitonicSearch#bitonicSearchPacked}).
+         */
+        BINARY,
+        /**
+         * Branchless binary search ({@link BitonicSearch#branchlessSearch}), on the array itself.
+         */
+        BRANCHLESS,
+        /**
+         * Search in an {@link EytzingerArray} copy of each half, which costs 8 extra bytes per element.
+         */
+        EYTZINGER
+    }
+
+    /**
+     * The bitonic array being searched.
+     */
+    private final int[] array;
+
+    /**
+     * The index of the maximum of the array, the last index of the ascending half.
+     */
+    private final int peakIndex;
+
+    /**
+     * The search mode used by {@link #search(int)}.
+     */
+    private final SearchMode mode;
+
+    /**
+     * The Eytzinger layouts of the ascending and descending halves, only in {@link SearchMode#EYTZINGER} mode.
+     */
+    private final EytzingerArray ascendingLayout;
+    private final EytzingerArray descendingLayout;
+
+    /**
+     * Builds an index over a bitonic array, finding its peak, using the {@link SearchMode#BINARY} mode.
+     *
+     * @param array the bitonic array (strictly ascending, then strictly descending)
+     * @throws IllegalArgumentException if the array is null or empty
+     */
+    public BitonicIndex(int[] array) {
+        this(array, SearchMode.BINARY);
+    }
+
+    /**
+     * Builds an index over a bitonic array, finding its peak.
+     * In {@link SearchMode#EYTZINGER} mode, it also builds the Eytzinger layout of both halves.
+     *
+     * @param array the bitonic array (strictly ascending, then strictly descending)
+     * @param mode how single targets are searched
+     * @throws IllegalArgumentException if the array is null or empty, or the mode is null
+     */
+    public BitonicIndex(int[] array, SearchMode mode) {
+        if (array == null || array.length == 0) {
+            throw new IllegalArgumentException("Array cannot be null or empty");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("Search mode cannot be null");
+        }
+        this.array = array;
+        this.peakIndex = BitonicSearch.findPeakIndex(array).peakIndex;
+        this.mode = mode;
+        if (mode == SearchMode.EYTZINGER) {
+            ascendingLayout = new EytzingerArray(array, 0, peakIndex, true);
+            descendingLayout = new EytzingerArray(array, peakIndex + 1, array.length - 1, false);
+        } else {
+            ascendingLayout = null;
+            descendingLayout = null;
+        }
+    }
+
+    /**
+     * Returns the index of the peak found by the constructor.
+     *
+     * @return the peak index
+     */
+    public int peakIndex() {
+        return peakIndex;
+    }
+
+    /**
+     * Searches a single target with the index's {@link SearchMode}, without looking for the peak again.
+     *
+     * @param targetValue the value to search for
+     * @return the packed indices (see {@link BitonicSearch#bitonicSearchPacked(int[], int)})
+     */
+    public long search(int targetValue) {
+        int ascIndex;
+        int descIndex;
+        switch (mode) {
+            case BRANCHLESS:
+                ascIndex = BitonicSearch.branchlessSearch(array, targetValue, 0, peakIndex, true);
+                descIndex = BitonicSearch.branchlessSearch(array, targetValue, peakIndex + 1, array.length - 1, false);
+                break;
+            case EYTZINGER:
+                ascIndex = ascendingLayout.indexOf(targetValue);
+                descIndex = descendingLayout.indexOf(targetValue);
+                break;
+            default:
+                ascIndex = BitonicSearch.indexOf(array, targetValue, 0, peakIndex, true);
+                descIndex = BitonicSearch.indexOf(array, targetValue, peakIndex + 1, array.length - 1, false);
+                break;
+        }
+        return ascIndex != -1 ? BitonicSearch.pack(ascIndex, descIndex) : BitonicSearch.pack(descIndex, -1);
+    }
+
+    /**
+     * Searches a batch of targets.
+     * Sorted batches are answered with a single sweep over both halves,
+     * unsorted ones with independent searches (in parallel for large batches).
+     *
+     * @param targets the values to search for
+     * @return the packed indices of each target, in the same order as the targets
+     * @throws IllegalArgumentException if targets is null
+     */
+    public long[] searchAll(int[] targets) {
+        if (targets == null) {
+            throw new IllegalArgumentException("Targets cannot be null");
+        }
+        return isSorted(targets) ? searchSorted(targets) : searchUnsorted(targets);
+    }
+
+    /**
+     * Sweeps both halves once for targets sorted in ascending order.
+     * The ascending half is walked from left to right and the descending half from right to left,
+     * since in both directions the values only grow, like the targets.
+     */
+    private long[] searchSorted(int[] targets) {
+        long[] results = new long[targets.length];
+        int ascFrom = 0; // Every index before ascFrom holds a value smaller than the current target
+        int descTo = array.length - 1; // Every index after descTo holds a value smaller than the current target
+        for (int i = 0; i < targets.length; i++) {
+            int target = targets[i];
+            ascFrom = firstAtLeastAscending(target, ascFrom, peakIndex);
+            descTo = lastAtLeastDescending(target, peakIndex + 1, descTo);
+            int ascIndex = ascFrom <= peakIndex && array[ascFrom] == target ? ascFrom : -1;
+            int descIndex = descTo > peakIndex && array[descTo] == target ? descTo : -1;
+            results[i] = ascIndex != -1 ? BitonicSearch.pack(ascIndex, descIndex) : BitonicSearch.pack(descIndex, -1);
+        }
+        return results;
+    }
+
+    private long[] searchUnsorted(int[] targets) {
+        long[] results = new long[targets.length];
+        IntStream indices = IntStream.range(0, targets.length);
+        if (targets.length >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> results[i] = search(targets[i]));
+        return results;
+    }
+
+    /**
+     * Galloping search in the ascending half, starting from the left.
+     *
+     * @return the first index in [from, to] whose value is at least the target, or to + 1 if there is none
+     */
+    private int firstAtLeastAscending(int target, int from, int to) {
+        long length = (long) to - from + 1;
+        long bound = 1;
+        while (bound <= length && array[(int) (from + bound - 1)] < target) {
+            bound <<= 1;
+        }
+        // Values before low are smaller than the target; high is a valid answer
+        int low = (int) (from + (bound >> 1));
+        int high = (int) Math.min(from + bound - 1, (long) to + 1);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Galloping search in the descending half, starting from the right.
+     *
+     * @return the last index in [from, to] whose value is at least the target, or from - 1 if there is none
+     */
+    private int lastAtLeastDescending(int target, int from, int to) {
+        long length = (long) to - from + 1;
+        long bound = 1;
+        while (bound <= length && array[(int) (to - bound + 1)] < target) {
+            bound <<= 1;
+        }
+        // Values after high are smaller than the target; low is a valid answer
+        int high = (int) (to - (bound >> 1));
+        int low = (int) Math.max(to - bound + 1, (long) from - 1);
+        while (low < high) {
+            int mid = low + (high - low + 1) / 2;
+            if (array[mid] < target) {
+                high = mid - 1;
+            } else {
+                low = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isSorted(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] > values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        final float STEP_VARIANCE = 4f;
+        final int QUERY_COUNT = 100000;
+
+        int arraySize = BitonicSearch.DEFAULT_ARRAY_SIZE;
+        if (args.length > 0) {
+            try {
+                arraySize = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid array size, using default: " + BitonicSearch.DEFAULT_ARRAY_SIZE);
+            }
+        }
+
+        int peakValue = arraySize * (int) (Math.ceil(STEP_VARIANCE)) / 2;
+        int[] bitonicArray = BitonicSearch.generateBitonicArray(arraySize, peakValue, STEP_VARIANCE);
+        BitonicIndex index = new BitonicIndex(bitonicArray);
+        System.out.println("Generated Bitonic Array of size " + bitonicArray.length + ", peak at index " + index.peakIndex());
+
+        Random rand = new Random();
+        int[] targets = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            targets[i] = rand.nextInt(peakValue);
+        }
+
+        long startTime = System.nanoTime();
+        index.searchAll(targets);
+        long unsortedNanos = System.nanoTime() - startTime;
+
+        Arrays.sort(targets);
+        startTime = System.nanoTime();
+        long[] sortedResults = index.searchAll(targets);
+        long sortedNanos = System.nanoTime() - startTime;
+
+        int found = 0;
+        for (long result : sortedResults) {
+            if (result != BitonicSearch.PACKED_NOT_FOUND) {
+                found++;
+            }
+        }
+        System.out.println("Found " + found + " of " + QUERY_COUNT + " targets");
+        System.out.printf("Unsorted batch: %.3f ms, sorted batch: %.3f ms%n", unsortedNanos / 1e6, sortedNanos / 1e6);
+    }
+}
@@ -108,6 +108,301 @@ public class BitonicSearch {
         );
     }
 
+    /**
+     * The packed result of {@link #bitonicSearchPacked(int[], int)} when the target is not found.
+     */
+    public static final long PACKED_NOT_FOUND = pack(-1, -1);
+
+    /**
+     * Allocation-free version of {@link #bitonicSearch(int[], int)}, for hot lookup paths.
+     * It does not count steps; use {@link #bitonicSearch(int[], int)} for the analysis.
+     * <p>
+     * The result packs the index in the high 32 bits and the alternate index in the low 32 bits,
+     * each being -1 when absent. Use {@link #packedIndex(long)} and {@link #packedAlternateIndex(long)}
+     * to unpack it.
+     *
+     * @param arr the bitonic array
+     * @param targetValue the value to search for
+     * @return the packed indices, or {@link #PACKED_NOT_FOUND} if the target is not in the array
+     */
+    public static long bitonicSearchPacked(int[] arr, int targetValue) {
+        int peakIndex = peakIndexOf(arr);
+        int ascIndex = indexOf(arr, targetValue, 0, peakIndex, true);
+        int descIndex = indexOf(arr, targetValue, peakIndex + 1, arr.length - 1, false);
+        return ascIndex != -1 ? pack(ascIndex, descIndex) : pack(descIndex, -1);
+    }
+
+    /**
+     * Returns the index stored in a result of {@link #bitonicSearchPacked(int[], int)}.
+     *
+     * @param packed the packed result
+     * @return the index of the target, or -1 if not found
+     */
+    public static int packedIndex(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Returns the alternate index stored in a result of {@link #bitonicSearchPacked(int[], int)}.
+     *
+     * @param packed the packed result
+     * @return the second index of the target (in the descending part), or -1 if there is none
+     */
+    public static int packedAlternateIndex(long packed) {
+        return (int) packed;
+    }
+
+    static long pack(int index, int alternateIndex) {
+        return ((long) index << 32) | (alternateIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Same as {@link #findPeakIndex(int[])}, without counting steps or allocating a result.
+     */
+    private static int peakIndexOf(int[] arr) {
+        int low = 0;
+        int high = arr.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] > arr[mid + 1]) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Same as {@link #binarySearch(int[], int, int, int, boolean)}, without counting steps or allocating a result.
+     */
+    static int indexOf(int[] arr, int targetValue, int startIndex, int endIndex, boolean ascending) {
+        while (startIndex <= endIndex) {
+            int mid = (startIndex + endIndex) >>> 1;
+            int value = arr[mid];
+            if (value == targetValue) {
+                return mid;
+            }
+            if ((value < targetValue) == ascending) {
+                startIndex = mid + 1;
+            } else {
+                endIndex = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Branchless version of {@link #bitonicSearchPacked(int[], int)}.
+     * Both the peak search and the two binary searches halve their range on every step
+     * without a data-dependent branch, so the JIT compiler can use conditional moves
+     * and the loop never suffers branch mispredictions.
+     *
+     * @param arr the bitonic array
+     * @param targetValue the value to search for
+     * @return the packed indices, or {@link #PACKED_NOT_FOUND} if the target is not in the array
+     */
+    public static long bitonicSearchBranchless(int[] arr, int targetValue) {
+        int peakIndex = branchlessPeakIndexOf(arr);
+        int ascIndex = branchlessSearch(arr, targetValue, 0, peakIndex, true);
+        int descIndex = branchlessSearch(arr, targetValue, peakIndex + 1, arr.length - 1, false);
+        return ascIndex != -1 ? pack(ascIndex, descIndex) : pack(descIndex, -1);
+    }
+
+    /**
+     * Branchless binary search in the monotone range [startIndex, endIndex].
+     * <p>
+     * Instead of stopping early on equality, it always runs exactly ceil(lg(length)) steps,
+     * keeping only the lower end of the range and the remaining length,
+     * and checks for equality once at the end.
+     *
+     * @param arr the array
+     * @param targetValue the value to search for
+     * @param startIndex the first index of the range
+     * @param endIndex the last index of the range
+     * @param ascending whether the range is sorted in ascending (or descending) order
+     * @return the index of the target, or -1 if not found
+     */
+    public static int branchlessSearch(int[] arr, int targetValue, int startIndex, int endIndex, boolean ascending) {
+        int length = endIndex - startIndex + 1;
+        if (length <= 0) {
+            return -1;
+        }
+        int base = startIndex;
+        // Two loops, so the ascending flag is not tested on every step
+        if (ascending) {
+            while (length > 1) {
+                int half = length >>> 1;
+                base = arr[base + half - 1] < targetValue ? base + half : base;
+                length -= half;
+            }
+        } else {
+            while (length > 1) {
+                int half = length >>> 1;
+                base = arr[base + half - 1] > targetValue ? base + half : base;
+                length -= half;
+            }
+        }
+        return arr[base] == targetValue ? base : -1;
+    }
+
+    /**
+     * Branchless version of {@link #findPeakIndex(int[])}: the peak is the first index
+     * whose value is greater than the next one (or the last index).
+     */
+    private static int branchlessPeakIndexOf(int[] arr) {
+        int base = 0;
+        int length = arr.length;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = arr[base + half - 1] < arr[base + half] ? base + half : base;
+            length -= half;
+        }
+        return base;
+    }
+
+    /**
+     * Finds the peak of a bitonic array that may contain plateaus (runs of equal values),
+     * i.e. a non-decreasing then non-increasing array. The result is an index of the maximum value.
+     * <p>
+     * {@link #findPeakIndex(int[])} assumes strict monotonicity: when {@code arr[mid] == arr[mid + 1]}
+     * it always goes right, which is wrong on the descending side. Here, such a tie is resolved adaptively:
+     * <ul>
+     *   <li>Probes are made on both sides of the tie at distances 1, 2, 4, ... (galloping).
+     *       A larger value on one side tells that the peak is on that side, and the binary search continues.
+     *       A smaller value closes that side, since the values only decrease beyond it.</li>
+     *   <li>If both sides close without a larger value, the peak lies between the two closing probes,
+     *       and that window (about twice the plateau around mid) is scanned.</li>
+     * </ul>
+     * Without ties, this is the plain binary search, O(log n). With short plateaus it stays close to O(log n):
+     * O(log n) probes per tie, plus one scan of O(w) for a peak plateau of width w. In the worst case
+     * (e.g. one larger value hidden in a long plateau, which no algorithm can find without looking at
+     * every element) it is O(n): every tie halves the range or ends with one scan of it.
+     *
+     * @param arr the bitonic array, possibly with plateaus
+     * @return the index of a maximum value and the number of steps (compares) taken
+     */
+    public static FindPeakResult findPeakIndexWithPlateaus(int[] arr) {
+        int low = 0;
+        int high = arr.length - 1;
+        int stepCount = 0;
+
+        while (low < high) {
+            stepCount++;
+            int mid = low + (high - low) / 2;
+            if (arr[mid] > arr[mid + 1]) {
+                high = mid; // Peak is in the left half
+                continue;
+            }
+            if (arr[mid] < arr[mid + 1]) {
+                low = mid + 1; // Peak is in the right half
+                continue;
+            }
+
+            // Tie: gallop away from the plateau on both sides, looking for a larger value
+            int value = arr[mid];
+            int leftBound = low - 1; // Exclusive bounds of the window that must contain the peak
+            int rightBound = high + 1;
+            boolean leftOpen = mid > low;
+            boolean rightOpen = mid + 1 < high;
+            boolean decided = false;
+            for (int distance = 1; (leftOpen || rightOpen) && !decided; distance *= 2) {
+                if (rightOpen) {
+                    stepCount++;
+                    int right = (int) Math.min((long) mid + 1 + distance, high);
+                    if (arr[right] > value) {
+                        low = mid + 2; // Rising after the plateau: the peak is on the right
+                        decided = true;
+                    } else if (arr[right] < value) {
+                        rightBound = right; // Falling: nothing larger beyond this point
+                        rightOpen = false;
+                    } else if (right == high) {
+                        rightOpen = false;
+                    }
+                }
+                if (leftOpen && !decided) {
+                    stepCount++;
+                    int left = (int) Math.max((long) mid - distance, low);
+                    if (arr[left] > value) {
+                        high = mid - 1; // Falling into the plateau: the peak is on the left
+                        decided = true;
+                    } else if (arr[left] < value) {
+                        leftBound = left; // Rising from this point: nothing larger before it
+                        leftOpen = false;
+                    } else if (left == low) {
+                        leftOpen = false;
+                    }
+                }
+            }
+            if (decided) {
+                continue;
+            }
+
+            // No larger value found by the probes: scan the window between the closing probes
+            int peakIndex = leftBound + 1;
+            for (int i = leftBound + 2; i < rightBound; i++) {
+                stepCount++;
+                if (arr[i] > arr[peakIndex]) {
+                    peakIndex = i;
+                }
+            }
+            return new FindPeakResult(peakIndex, stepCount);
+        }
+        return new FindPeakResult(low, stepCount);
+    }
+
+    /**
+     * Same as {@link #bitonicSearch(int[], int)}, for bitonic arrays that may contain plateaus
+     * (see {@link #findPeakIndexWithPlateaus(int[])}). The binary searches work unchanged on
+     * non-strictly monotone halves; with duplicate values, any matching index of each half is returned.
+     *
+     * @param arr the bitonic array, possibly with plateaus
+     * @param targetValue the value to search for
+     * @return the search result, with the step count of the peak search and both binary searches
+     */
+    public static BitonicSearchResult bitonicSearchWithPlateaus(int[] arr, int targetValue) {
+        FindPeakResult peakResult = findPeakIndexWithPlateaus(arr);
+        int peakIndex = peakResult.peakIndex;
+        BinarySearchResult ascResult = binarySearch(arr, targetValue, 0, peakIndex, true);
+        BinarySearchResult descResult = binarySearch(arr, targetValue, peakIndex + 1, arr.length - 1, false);
+        return new BitonicSearchResult(
+            ascResult.index != -1 ? ascResult.index : descResult.index,
+            ascResult.index != -1 ? descResult.index : ascResult.index,
+            peakResult.stepCount + ascResult.stepCount + descResult.stepCount
+        );
+    }
+
+    /**
+     * Generates a bitonic array with plateaus: like {@link #generateBitonicArray(int, int, float)},
+     * but each step between neighbours is 0 (a repeated value) with the given probability.
+     *
+     * @param count the size of the array
+     * @param peakValue the value at the peak
+     * @param stepVariance the maximum step between neighbours (at least 1)
+     * @param plateauProbability the probability that a step is 0, between 0 and 1
+     * @return the generated array
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public static int[] generateBitonicArrayWithPlateaus(
+      int count, int peakValue, float stepVariance, double plateauProbability
+      ) {
+        if (plateauProbability < 0 || plateauProbability > 1) {
+            throw new IllegalArgumentException("Plateau probability must be between 0 and 1");
+        }
+        int[] arr = generateBitonicArray(count, peakValue, stepVariance);
+        int peakIndex = findPeakIndex(arr).peakIndex;
+        // Rebuild the steps from the peak outward, flattening some of them
+        for (int i = peakIndex - 1; i >= 0; i--) {
+            int step = Math.random() < plateauProbability ? 0 : Math.max(1, (int) (Math.random() * stepVariance));
+            arr[i] = arr[i + 1] - step;
+        }
+        for (int i = peakIndex + 1; i < arr.length; i++) {
+            int step = Math.random() < plateauProbability ? 0 : Math.max(1, (int) (Math.random() * stepVariance));
+            arr[i] = arr[i - 1] - step;
+        }
+        return arr;
+    }
+
     public static int[] generateBitonicArray(
       int count, int peakValue, float stepVariance
       ) {
@@ -164,5 +459,9 @@ public class BitonicSearch {
 
         BitonicSearchResult searchResult = bitonicSearch(bitonicArray, targetValue);
         System.out.println("Search Result - " + searchResult);
+
+        long packedResult = bitonicSearchPacked(bitonicArray, targetValue);
+        System.out.println("Packed Search Result - index: " + packedIndex(packedResult)
+            + ", alternate index: " + packedAlternateIndex(packedResult));
     }
 }
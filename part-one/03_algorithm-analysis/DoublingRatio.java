@@ -0,0 +1,456 @@
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The {@code DoublingRatio} class runs the "doubling hypothesis" experiment on any registered algorithm.
+ * <p>
+ * For each registered {@link Experiment}, the running time {@code T(N)} is measured at
+ * {@code N, 2N, 4N, ...}. Each row reports the ratio {@code T(2N) / T(N)} and its base-2 logarithm
+ * (the local estimate of the exponent {@code b}), and after the last row a least-squares line is fitted
+ * to the log-log points, giving the power law {@code T(N) = a * N^b}.
+ * <p>
+ * Compared to timing a single run with a wall clock:
+ * <ul>
+ *   <li>Times are taken with {@link System#nanoTime()}.</li>
+ *   <li>Every experiment is warmed up first, so the JIT compiler has already compiled the hot code.</li>
+ *   <li>Each size is measured several times (on fresh inputs) and the median is reported.</li>
+ *   <li>Input generation is never part of the measured time.</li>
+ * </ul>
+ * <p>
+ * Usage:
+ * <pre>
+ *   java DoublingRatio                       // list the registered experiments
+ *   java DoublingRatio threesum              // run one experiment with its default sizes
+ *   java DoublingRatio bitonic 4096 8        // start at N = 4096 and double 8 times
+ *   java DoublingRatio all                   // run every registered experiment
+ * </pre>
+ * The collinear-points experiments are only registered when the {@code 06_mergesort} classes
+ * ({@code Point}, {@code BruteCollinearPoints}, {@code FastCollinearPoints}) are on the classpath.
+ */
+public class DoublingRatio {
+    /**
+     * Minimum number of untimed runs performed before measuring, to let the JIT compiler warm up.
+     */
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * Minimum total time spent warming up, in nanoseconds.
+     */
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+
+    /**
+     * Number of timed runs per input size; the median of them is reported.
+     */
+    private static final int REPETITIONS = 5;
+
+    /**
+     * Default number of doublings when not specified in the command line arguments.
+     */
+    private static final int DEFAULT_STEPS = 6;
+
+    /**
+     * Largest input size the doubling experiment measures, so that doubling an int size never overflows.
+     */
+    static final int MAX_SIZE = Integer.MAX_VALUE / 2;
+
+    /**
+     * Number of lookups timed by the search experiments, independent of {@code N}.
+     */
+    private static final int SEARCH_QUERIES = 1 << 16;
+
+    /**
+     * An algorithm that can be timed by the doubling experiment.
+     *
+     * @param <T> the type of the generated input
+     */
+    public interface Experiment<T> {
+        /**
+         * Generates a fresh input of size n. This is not part of the measured time.
+         *
+         * @param n the input size
+         * @return the generated input
+         */
+        T generateInput(int n);
+
+        /**
+         * Runs the algorithm on the given input. This is the measured part.
+         *
+         * @param input the input generated by {@link #generateInput(int)}
+         * @return any value derived from the result, so the JIT compiler cannot drop the work
+         */
+        long run(T input);
+
+        /**
+         * Returns the first input size of the doubling experiment.
+         *
+         * @return the default start size
+         */
+        int defaultStartSize();
+    }
+
+    /**
+     * A single row of the doubling experiment.
+     */
+    public static class Measurement {
+        public final int n;
+        public final long nanos;
+
+        public Measurement(int n, long nanos) {
+            this.n = n;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * The power law {@code T(N) = a * N^b} fitted to the log-log points of an experiment.
+     */
+    public static class PowerLaw {
+        public final double a;
+        public final double b;
+
+        public PowerLaw(double a, double b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("T(N) = %.3e * N^%.3f (ns)", a, b);
+        }
+    }
+
+    /**
+     * The registered experiments, in registration order.
+     */
+    private static final Map<String, Experiment<?>> EXPERIMENTS = new LinkedHashMap<>();
+
+    static {
+        register("threesum", new Experiment<int[]>() {
+            public int[] generateInput(int n) {
+                return QuadraticThreeSum.generateUniqueValues(n, n);
+            }
+            public long run(int[] input) {
+                return new QuadraticThreeSum().threeSum(input, 0).size();
+            }
+            public int defaultStartSize() {
+                return 250;
+            }
+        });
+        register("bitonic", new Experiment<int[][]>() {
+            public int[][] generateInput(int n) {
+                return new int[][] { generateBitonicInput(n), randomTargets(n) };
+            }
+            public long run(int[][] input) {
+                long checksum = 0;
+                for (int target : input[1]) {
+                    checksum += BitonicSearch.bitonicSearch(input[0], target).index;
+                }
+                return checksum;
+            }
+            public int defaultStartSize() {
+                return 1 << 12;
+            }
+        });
+        register("binary-search", new Experiment<int[][]>() {
+            public int[][] generateInput(int n) {
+                int[] sorted = new int[n];
+                for (int i = 0; i < n; i++) {
+                    sorted[i] = 2 * i;
+                }
+                return new int[][] { sorted, randomTargets(2 * n) };
+            }
+            public long run(int[][] input) {
+                int[] sorted = input[0];
+                long checksum = 0;
+                for (int target : input[1]) {
+                    checksum += BitonicSearch.binarySearch(sorted, target, 0, sorted.length - 1, true).index;
+                }
+                return checksum;
+            }
+            public int defaultStartSize() {
+                return 1 << 12;
+            }
+        });
+        registerCollinearPoints("brute-collinear", "BruteCollinearPoints", 32);
+        registerCollinearPoints("fast-collinear", "FastCollinearPoints", 256);
+    }
+
+    /**
+     * Registers an experiment under the given name, replacing any previous one with the same name.
+     *
+     * @param name the name used to select the experiment from the command line
+     * @param experiment the experiment
+     * @throws IllegalArgumentException if name or experiment is null
+     */
+    public static void register(String name, Experiment<?> experiment) {
+        if (name == null || experiment == null) {
+            throw new IllegalArgumentException("Name and experiment cannot be null");
+        }
+        EXPERIMENTS.put(name, experiment);
+    }
+
+    /**
+     * Returns the names of the registered experiments.
+     *
+     * @return the experiment names, in registration order
+     */
+    public static String[] experimentNames() {
+        return EXPERIMENTS.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Measures the running time of an experiment at a single input size.
+     * A fresh input is generated for every repetition, and the median time is returned.
+     *
+     * @param experiment the experiment to time
+     * @param n the input size
+     * @param repetitions the number of timed runs
+     * @return the median running time in nanoseconds
+     */
+    public static <T> long timeTrial(Experiment<T> experiment, int n, int repetitions) {
+        long[] times = new long[repetitions];
+        long blackhole = 0;
+        for (int i = 0; i < repetitions; i++) {
+            T input = experiment.generateInput(n);
+            long start = System.nanoTime();
+            blackhole += experiment.run(input);
+            times[i] = System.nanoTime() - start;
+        }
+        consume(blackhole);
+        Arrays.sort(times);
+        return times[repetitions / 2];
+    }
+
+    /**
+     * Runs the doubling experiment: warms up at the start size (at least {@link #WARMUP_ROUNDS} runs
+     * and {@link #WARMUP_NANOS} nanoseconds), then measures
+     * the running time at {@code startSize * 2^i} for {@code i = 0 .. steps - 1}.
+     * It stops early, with a message on standard error, when the next size would exceed {@link #MAX_SIZE}.
+     *
+     * @param experiment the experiment to run
+     * @param startSize the first input size
+     * @param steps the number of input sizes to measure
+     * @return the measurements, one per input size (fewer than steps if it stopped early)
+     * @throws IllegalArgumentException if startSize or steps is not positive, or startSize exceeds MAX_SIZE
+     */
+    public static <T> Measurement[] doublingTest(Experiment<T> experiment, int startSize, int steps) {
+        if (startSize <= 0 || steps <= 0) {
+            throw new IllegalArgumentException("Start size and steps must be greater than 0");
+        }
+        if (startSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Start size must be at most " + MAX_SIZE);
+        }
+        long blackhole = 0;
+        long warmupStart = System.nanoTime();
+        for (int i = 0; i < WARMUP_ROUNDS || System.nanoTime() - warmupStart < WARMUP_NANOS; i++) {
+            blackhole += experiment.run(experiment.generateInput(startSize));
+        }
+        consume(blackhole);
+
+        Measurement[] measurements = new Measurement[steps];
+        int n = startSize;
+        for (int i = 0; i < steps; i++) {
+            measurements[i] = new Measurement(n, timeTrial(experiment, n, REPETITIONS));
+            if (i + 1 < steps && n > MAX_SIZE / 2) {
+                System.err.println("Stopping after " + (i + 1) + " of " + steps + " sizes: N = " + 2L * n
+                        + " would exceed " + MAX_SIZE);
+                return Arrays.copyOf(measurements, i + 1);
+            }
+            n *= 2;
+        }
+        return measurements;
+    }
+
+    /**
+     * Fits a straight line {@code lg T(N) = b * lg N + c} to the measurements by least squares.
+     *
+     * @param measurements the measurements, at least two of them
+     * @return the fitted power law {@code T(N) = a * N^b}, where {@code a = 2^c}
+     * @throws IllegalArgumentException if there are fewer than two measurements
+     */
+    public static PowerLaw fitPowerLaw(Measurement[] measurements) {
+        int count = measurements.length;
+        if (count < 2) {
+            throw new IllegalArgumentException("At least two measurements are needed to fit a line");
+        }
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (Measurement m : measurements) {
+            double x = log2(m.n);
+            double y = log2(Math.max(1, m.nanos));
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        double b = (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+        double c = (sumY - b * sumX) / count;
+        return new PowerLaw(Math.pow(2, c), b);
+    }
+
+    /**
+     * Runs the doubling experiment and prints the measurements, the ratios, and the fitted power law.
+     *
+     * @param name the name of the experiment
+     * @param experiment the experiment to run
+     * @param startSize the first input size
+     * @param steps the number of input sizes to measure
+     */
+    public static void printDoublingTest(String name, Experiment<?> experiment, int startSize, int steps) {
+        System.out.println("Experiment: " + name);
+        System.out.printf("%12s %16s %10s %10s%n", "N", "time (ms)", "ratio", "lg ratio");
+        Measurement[] measurements = doublingTest(experiment, startSize, steps);
+        for (int i = 0; i < measurements.length; i++) {
+            Measurement m = measurements[i];
+            if (i == 0) {
+                System.out.printf("%12d %16.3f %10s %10s%n", m.n, m.nanos / 1e6, "-", "-");
+            } else {
+                double ratio = (double) m.nanos / Math.max(1, measurements[i - 1].nanos);
+                System.out.printf("%12d %16.3f %10.2f %10.2f%n", m.n, m.nanos / 1e6, ratio, log2(ratio));
+            }
+        }
+        if (measurements.length >= 2) {
+            System.out.println("Fitted power law: " + fitPowerLaw(measurements));
+        }
+        System.out.println();
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java DoublingRatio <experiment|all> [startSize] [steps]");
+            System.out.println("Registered experiments: " + String.join(", ", experimentNames()));
+            return;
+        }
+
+        int startSize = -1;
+        int steps = DEFAULT_STEPS;
+        if (args.length > 1) {
+            try {
+                startSize = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid start size, using the experiment's default");
+            }
+        }
+        if (args.length > 2) {
+            try {
+                steps = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number of steps, using default: " + DEFAULT_STEPS);
+            }
+            if (steps < 1) {
+                System.out.println("The number of steps must be at least 1.");
+                return;
+            }
+        }
+        if (startSize > MAX_SIZE) {
+            System.out.println("The start size must be at most " + MAX_SIZE + ".");
+            return;
+        }
+
+        String[] names = args[0].equals("all") ? experimentNames() : new String[] { args[0] };
+        for (String name : names) {
+            Experiment<?> experiment = EXPERIMENTS.get(name);
+            if (experiment == null) {
+                System.out.println("Unknown experiment: " + name);
+                System.out.println("Registered experiments: " + String.join(", ", experimentNames()));
+                return;
+            }
+            int start = startSize > 0 ? startSize : experiment.defaultStartSize();
+            printDoublingTest(name, experiment, start, steps);
+        }
+    }
+
+    /**
+     * Generates a bitonic array of size n, with the same parameters as {@link BitonicSearch#main}.
+     */
+    private static int[] generateBitonicInput(int n) {
+        final float STEP_VARIANCE = 4f;
+        final int PEAK_PENALTY = 2;
+        int peakValue = n * (int) (Math.ceil(STEP_VARIANCE)) / PEAK_PENALTY;
+        return BitonicSearch.generateBitonicArray(n, peakValue, STEP_VARIANCE);
+    }
+
+    /**
+     * Generates {@link #SEARCH_QUERIES} random targets in [0, bound).
+     */
+    private static int[] randomTargets(int bound) {
+        Random rand = new Random();
+        int[] targets = new int[SEARCH_QUERIES];
+        for (int i = 0; i < targets.length; i++) {
+            targets[i] = rand.nextInt(bound);
+        }
+        return targets;
+    }
+
+    /**
+     * Registers a collinear-points experiment if its classes can be found on the classpath.
+     * The classes live in another topic folder, so they are looked up by reflection
+     * instead of being referenced directly (which would break compiling this folder alone).
+     *
+     * @param name the name of the experiment
+     * @param className the collinear-points class, with a constructor taking a {@code Point[]}
+     * @param defaultStartSize the first input size
+     */
+    private static void registerCollinearPoints(String name, String className, int defaultStartSize) {
+        final Class<?> pointClass;
+        final Constructor<?> pointConstructor;
+        final Constructor<?> collinearConstructor;
+        try {
+            pointClass = Class.forName("Point");
+            pointConstructor = pointClass.getConstructor(int.class, int.class);
+            collinearConstructor = Class.forName(className)
+                    .getConstructor(Array.newInstance(pointClass, 0).getClass());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return; // The 06_mergesort classes are not on the classpath
+        }
+
+        register(name, new Experiment<Object>() {
+            public Object generateInput(int n) {
+                final int COORDINATE_BOUND = 32768;
+                Random rand = new Random();
+                HashSet<Long> used = new HashSet<>();
+                Object points = Array.newInstance(pointClass, n);
+                try {
+                    for (int i = 0; i < n; i++) {
+                        int x, y;
+                        do {
+                            x = rand.nextInt(COORDINATE_BOUND);
+                            y = rand.nextInt(COORDINATE_BOUND);
+                        } while (!used.add((long) x * COORDINATE_BOUND + y)); // Points must be distinct
+                        Array.set(points, i, pointConstructor.newInstance(x, y));
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create points", e);
+                }
+                return points;
+            }
+            public long run(Object points) {
+                try {
+                    return System.identityHashCode(collinearConstructor.newInstance(points));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot run " + className, e);
+                }
+            }
+            public int defaultStartSize() {
+                return defaultStartSize;
+            }
+        });
+    }
+
+    private static double log2(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    /**
+     * Sink for the values returned by the experiments, so their work is never dead code.
+     */
+    private static volatile long sink;
+
+    private static void consume(long value) {
+        sink += value;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * The {@code EytzingerArray} class stores a sorted range of an array in Eytzinger (BFS) order,
+ * for cache-friendly searches on arrays much larger than the CPU caches.
+ * <p>
+ * In the Eytzinger layout, the root of the implicit binary search tree is at index 1 and the children
+ * of node k are at 2k and 2k + 1. A search walks the tree from the root, so:
+ * <ul>
+ *   <li>The first levels of every search are packed together at the start of the array and stay in cache.</li>
+ *   <li>The 16 possible nodes four levels below node k are contiguous (16k to 16k + 15), a single cache line,
+ *       which native versions of this search prefetch early. Java has no prefetch instruction, so the search
+ *       relies on the hardware alone here.</li>
+ *   <li>The loop body is a single compare-and-shift, with no data-dependent branch.</li>
+ * </ul>
+ * Since the nodes are moved, the original index of each node is kept in a parallel array.
+ * The layout therefore uses 8 bytes per element, on top of the source array.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     EytzingerArray layout = new EytzingerArray(arr, 0, peakIndex, true);
+ *     int index = layout.indexOf(42); // index in arr, or -1
+ * </pre>
+ */
+public class EytzingerArray {
+    /**
+     * The largest supported size, so that node indices (up to 2 * size + 1) never overflow.
+     */
+    public static final int MAX_SIZE = (1 << 30) - 1;
+
+    /**
+     * The values in Eytzinger order, 1-based (index 0 is unused).
+     */
+    private final int[] tree;
+
+    /**
+     * The original index (in the source array) of each node of the tree.
+     */
+    private final int[] positions;
+
+    /**
+     * The number of values in the layout.
+     */
+    private final int size;
+
+    /**
+     * Builds the Eytzinger layout of the monotone range [startIndex, endIndex] of the source array.
+     *
+     * @param source the source array
+     * @param startIndex the first index of the range
+     * @param endIndex the last index of the range (the range may be empty)
+     * @param ascending whether the range is sorted in ascending (or descending) order
+     * @throws IllegalArgumentException if the range is out of bounds or larger than {@link #MAX_SIZE}
+     */
+    public EytzingerArray(int[] source, int startIndex, int endIndex, boolean ascending) {
+        if (startIndex < 0 || endIndex >= source.length || endIndex < startIndex - 1) {
+            throw new IllegalArgumentException("Invalid range [" + startIndex + ", " + endIndex + "]");
+        }
+        if (endIndex - startIndex + 1 > MAX_SIZE) {
+            throw new IllegalArgumentException("Range too large, at most " + MAX_SIZE + " values are supported");
+        }
+        size = endIndex - startIndex + 1;
+        tree = new int[size + 1];
+        positions = new int[size + 1];
+        // Descending ranges are read backward, so the tree is always in ascending order
+        int first = ascending ? startIndex : endIndex;
+        int step = ascending ? 1 : -1;
+
+        // Iterative in-order traversal of the implicit tree, filling the nodes with the sorted values
+        int k = leftmostNodeOf(1);
+        int next = first;
+        for (int filled = 0; filled < size; filled++) {
+            tree[k] = source[next];
+            positions[k] = next;
+            next += step;
+            // Go to the in-order successor: the leftmost node of the right subtree if there is one,
+            // otherwise the first ancestor of which we are in the left subtree
+            if (2 * k + 1 <= size) {
+                k = leftmostNodeOf(2 * k + 1);
+            } else {
+                k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values in the layout.
+     *
+     * @return the size of the layout
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Searches for the target value.
+     *
+     * @param targetValue the value to search for
+     * @return the index of the target in the source array, or -1 if not found
+     */
+    public int indexOf(int targetValue) {
+        int k = 1;
+        while (k <= size) {
+            k = 2 * k + (tree[k] < targetValue ? 1 : 0);
+        }
+        // Undo the right turns taken after the last left turn: that node is the first value >= target
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k != 0 && tree[k] == targetValue ? positions[k] : -1;
+    }
+
+    private int leftmostNodeOf(int k) {
+        while (2 * k <= size) {
+            k = 2 * k;
+        }
+        return k;
+    }
+}
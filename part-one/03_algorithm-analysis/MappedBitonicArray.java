@@ -0,0 +1,328 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * The {@code MappedBitonicArray} class searches a bitonic array stored in a file, without loading it.
+ * <p>
+ * The file is memory-mapped, so the peak search and the two binary searches read the file directly,
+ * and the operating system only pages in the few blocks each search touches.
+ * A single mapping is limited to 2 GB, so larger files are mapped as several segments of
+ * {@link #SEGMENT_BYTES} bytes, and indices are {@code long}s.
+ * <p>
+ * File format: the raw values, one after another, with no header. Values are either 32-bit ({@code int})
+ * or 64-bit ({@code long}) integers, in big-endian order by default (the order of {@link java.io.DataOutputStream}).
+ * The number of values is the file size divided by the value size.
+ * {@link #write(int[], Path)} persists an in-memory array (e.g. from {@link BitonicSearch#generateBitonicArray})
+ * in this format, and {@link #write(long[], Path)} does the same for {@code long} values.
+ * <p>
+ * Example usage:
+ * <pre>
+ *     MappedBitonicArray.write(BitonicSearch.generateBitonicArray(1000, 2000, 4f), path);
+ *     try (MappedBitonicArray arr = new MappedBitonicArray(path)) {
+ *         MappedBitonicArray.SearchResult result = arr.bitonicSearch(42);
+ *     }
+ * </pre>
+ */
+public class MappedBitonicArray implements Closeable {
+    /**
+     * The size of each mapped segment, a multiple of every value size.
+     */
+    public static final int SEGMENT_BYTES = 1 << 30;
+
+    /**
+     * The width of the values stored in the file.
+     */
+    public enum ValueType {
+        INT(2), LONG(3);
+
+        /**
+         * log2 of the value size in bytes.
+         */
+        private final int shift;
+
+        ValueType(int shift) {
+            this.shift = shift;
+        }
+    }
+
+    /**
+     * The result of a search in a mapped array, like {@link BitonicSearch.BitonicSearchResult} with {@code long} indices.
+     */
+    public static class SearchResult {
+        public long index;
+        public long alternateIndex;
+        public int stepCount;
+
+        public SearchResult(long index, long alternateIndex, int stepCount) {
+            this.index = index;
+            this.alternateIndex = alternateIndex;
+            this.stepCount = stepCount;
+        }
+
+        @Override
+        public String toString() {
+            if (index == -1) {
+                return "Target not found, steps: " + stepCount;
+            } else if (alternateIndex == -1) {
+                return "Target found at index: " + index + ", steps: " + stepCount;
+            } else {
+                return "Target found at index: " + index + " or " + alternateIndex + ", steps: " + stepCount;
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final ValueType valueType;
+    private final long size;
+
+    /**
+     * The index of the peak, found once when the file is opened.
+     */
+    private final long peakIndex;
+
+    /**
+     * The number of steps taken to find the peak.
+     */
+    private final int peakStepCount;
+
+    /**
+     * Maps a file of big-endian {@code int} values.
+     *
+     * @param file the file to map
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedBitonicArray(Path file) throws IOException {
+        this(file, ValueType.INT, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Maps a file of values of the given type and byte order.
+     *
+     * @param file the file to map
+     * @param valueType the width of the values
+     * @param order the byte order of the values
+     * @throws IOException if the file cannot be opened or mapped
+     * @throws IllegalArgumentException if the file is empty or its size is not a multiple of the value size
+     */
+    public MappedBitonicArray(Path file, ValueType valueType, ByteOrder order) throws IOException {
+        this.valueType = valueType;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long bytes = channel.size();
+            if (bytes == 0 || (bytes & ((1 << valueType.shift) - 1)) != 0) {
+                throw new IllegalArgumentException("File size must be a positive multiple of the value size: " + bytes);
+            }
+            this.size = bytes >> valueType.shift;
+
+            int segmentCount = (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long position = (long) i * SEGMENT_BYTES;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_BYTES, bytes - position));
+                segments[i].order(order);
+            }
+
+            // Same algorithm as BitonicSearch.findPeakIndex, with long indices
+            long low = 0;
+            long high = size - 1;
+            int stepCount = 0;
+            while (low < high) {
+                stepCount++;
+                long mid = low + (high - low) / 2;
+                if (get(mid) > get(mid + 1)) {
+                    high = mid; // Peak is in the left half
+                } else {
+                    low = mid + 1; // Peak is in the right half
+                }
+            }
+            this.peakIndex = low;
+            this.peakStepCount = stepCount;
+        } catch (IOException | RuntimeException e) {
+            // The channel would stay open, since the caller never gets the object to close
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of values in the file.
+     *
+     * @return the size of the array
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the peak, found when the file was opened.
+     *
+     * @return the peak index
+     */
+    public long peakIndex() {
+        return peakIndex;
+    }
+
+    /**
+     * Returns the value at the given index, read from the mapped file.
+     *
+     * @param index the index, between 0 and size() - 1
+     * @return the value (widened to {@code long} for {@code int} files)
+     */
+    public long get(long index) {
+        long byteOffset = index << valueType.shift;
+        MappedByteBuffer segment = segments[(int) (byteOffset / SEGMENT_BYTES)];
+        int offset = (int) (byteOffset % SEGMENT_BYTES);
+        return valueType == ValueType.INT ? segment.getInt(offset) : segment.getLong(offset);
+    }
+
+    /**
+     * Searches the target in both halves of the array.
+     * The step count includes the steps taken to find the peak when the file was opened,
+     * so it can be compared with {@link BitonicSearch#bitonicSearch(int[], int)}.
+     *
+     * @param targetValue the value to search for
+     * @return the search result
+     */
+    public SearchResult bitonicSearch(long targetValue) {
+        SearchResult ascResult = binarySearch(targetValue, 0, peakIndex, true);
+        SearchResult descResult = binarySearch(targetValue, peakIndex + 1, size - 1, false);
+        return new SearchResult(
+            ascResult.index != -1 ? ascResult.index : descResult.index,
+            ascResult.index != -1 ? descResult.index : ascResult.index,
+            peakStepCount + ascResult.stepCount + descResult.stepCount
+        );
+    }
+
+    /**
+     * Binary search in the monotone range [startIndex, endIndex] of the mapped file.
+     *
+     * @param targetValue the value to search for
+     * @param startIndex the first index of the range
+     * @param endIndex the last index of the range
+     * @param ascending whether the range is sorted in ascending (or descending) order
+     * @return the index of the target (or -1 if not found) and the step count; alternateIndex is always -1
+     */
+    public SearchResult binarySearch(long targetValue, long startIndex, long endIndex, boolean ascending) {
+        int stepCount = 0;
+        while (startIndex <= endIndex) {
+            stepCount++;
+            long mid = startIndex + (endIndex - startIndex) / 2;
+            long value = get(mid);
+            if (value == targetValue) {
+                return new SearchResult(mid, -1, stepCount); // Target found
+            }
+            if ((value < targetValue) == ascending) {
+                startIndex = mid + 1; // Search in the right half
+            } else {
+                endIndex = mid - 1; // Search in the left half
+            }
+        }
+        return new SearchResult(-1, -1, stepCount); // Target not found
+    }
+
+    /**
+     * Closes the file. The mapping itself is released by the garbage collector,
+     * and must not be used after closing.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes an array of {@code int} values to a file, in the big-endian format read by
+     * {@link #MappedBitonicArray(Path)}. An existing file is overwritten.
+     *
+     * @param arr the values to write
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(int[] arr, Path file) throws IOException {
+        final int BUFFER_VALUES = 1 << 16;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_VALUES * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int start = 0; start < arr.length; start += BUFFER_VALUES) {
+                int end = Math.min(arr.length, start + BUFFER_VALUES);
+                buffer.clear();
+                buffer.asIntBuffer().put(arr, start, end - start);
+                buffer.limit((end - start) * Integer.BYTES);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an array of {@code long} values to a file, in the big-endian format read by
+     * {@link #MappedBitonicArray(Path, ValueType, ByteOrder)} with {@link ValueType#LONG}.
+     * An existing file is overwritten.
+     *
+     * @param arr the values to write
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(long[] arr, Path file) throws IOException {
+        final int BUFFER_VALUES = 1 << 15;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_VALUES * Long.BYTES).order(ByteOrder.BIG_ENDIAN);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int start = 0; start < arr.length; start += BUFFER_VALUES) {
+                int end = Math.min(arr.length, start + BUFFER_VALUES);
+                buffer.clear();
+                buffer.asLongBuffer().put(arr, start, end - start);
+                buffer.limit((end - start) * Long.BYTES);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final float STEP_VARIANCE = 4f;
+        final int PEAK_PENALTY = 2;
+
+        if (args.length < 1) {
+            System.out.println("Usage: java MappedBitonicArray <file> [size]");
+            System.out.println("  With a size, generates a bitonic array of that size into the file first.");
+            return;
+        }
+        Path file = Paths.get(args[0]);
+        int peakValue = -1;
+        if (args.length > 1) {
+            int arraySize = BitonicSearch.DEFAULT_ARRAY_SIZE;
+            try {
+                arraySize = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid array size, using default: " + BitonicSearch.DEFAULT_ARRAY_SIZE);
+            }
+            peakValue = arraySize * (int) (Math.ceil(STEP_VARIANCE)) / PEAK_PENALTY;
+            write(BitonicSearch.generateBitonicArray(arraySize, peakValue, STEP_VARIANCE), file);
+        }
+
+        try (MappedBitonicArray arr = new MappedBitonicArray(file)) {
+            System.out.println("Mapped " + arr.size() + " values, peak at index " + arr.peakIndex());
+            long peak = arr.get(arr.peakIndex());
+            long targetValue = peakValue > 0 ? new Random().nextInt(peakValue) : peak;
+            System.out.println("Searching for target value: " + targetValue);
+            System.out.println("Search Result - " + arr.bitonicSearch(targetValue));
+        }
+    }
+}
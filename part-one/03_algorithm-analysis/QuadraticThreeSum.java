@@ -1,7 +1,6 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.time.*;
 
 public class QuadraticThreeSum {
     public final static int DEFAULT_ARRAY_SIZE = 1000;
@@ -128,13 +127,11 @@ public class QuadraticThreeSum {
         int[] testData = generateUniqueValues(arraySize, (int) (VARIANCE * arraySize));
         System.out.println("Generated array of size " + testData.length + ": " + Arrays.toString(testData));
 
-        LocalDateTime startTime = LocalDateTime.now();
-        System.out.println("Start time: " + startTime);
+        // Single cold run; use DoublingRatio for warmed-up, repeated measurements
+        long startTime = System.nanoTime();
         ArrayList<Triple> result = new QuadraticThreeSum().threeSum(testData, 0);
-        LocalDateTime endTime = LocalDateTime.now();
-        System.out.println("End time: " + endTime);
-        Duration duration = Duration.between(startTime, endTime);
-        System.out.println("Duration: " + duration.toMillis() + " milliseconds");
+        long elapsedNanos = System.nanoTime() - startTime;
+        System.out.printf("Duration: %.3f milliseconds%n", elapsedNanos / 1e6);
         System.out.println("Found " + result.size() + " triples that sum to 0:");
         // for (Triple triple : result) {
         //     System.out.println("- " + triple);
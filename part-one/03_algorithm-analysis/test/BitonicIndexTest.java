@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BitonicIndexTest {
+
+    @Test
+    public void testPeakIndex() {
+        BitonicIndex index = new BitonicIndex(new int[] { 1, 3, 8, 12, 20, 15, 9, 4, 2 });
+        assertEquals(4, index.peakIndex());
+    }
+
+    @Test
+    public void testSearchMatchesBitonicSearch() {
+        int[] arr = BitonicSearch.generateBitonicArray(3000, 6000, 4f);
+        BitonicIndex index = new BitonicIndex(arr);
+        for (int target = arr[0] - 3; target <= 6003; target++) {
+            assertEquals(BitonicSearch.bitonicSearchPacked(arr, target), index.search(target));
+        }
+    }
+
+    @Test
+    public void testAllSearchModesAgree() {
+        for (int size : new int[] { 1, 2, 3, 17, 1000, 4097 }) {
+            int[] arr = BitonicSearch.generateBitonicArray(size, 2 * size, 4f);
+            for (BitonicIndex.SearchMode mode : BitonicIndex.SearchMode.values()) {
+                BitonicIndex index = new BitonicIndex(arr, mode);
+                for (int target = arr[0] - 3; target <= 2 * size + 3; target++) {
+                    assertEquals(BitonicSearch.bitonicSearchPacked(arr, target), index.search(target),
+                        mode + ", size " + size + ", target " + target);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEytzingerArray() {
+        int[] arr = { 9, 7, 5, 3, 1 };
+        EytzingerArray layout = new EytzingerArray(arr, 1, 4, false);
+        assertEquals(4, layout.size());
+        assertEquals(1, layout.indexOf(7));
+        assertEquals(4, layout.indexOf(1));
+        assertEquals(-1, layout.indexOf(9));
+        assertEquals(-1, layout.indexOf(4));
+        assertEquals(-1, new EytzingerArray(arr, 3, 2, true).indexOf(3));
+        assertThrows(IllegalArgumentException.class, () -> new EytzingerArray(arr, 0, 5, true));
+    }
+
+    @Test
+    public void testSearchAllSortedAndUnsorted() {
+        int[] arr = BitonicSearch.generateBitonicArray(5000, 10000, 4f);
+        BitonicIndex index = new BitonicIndex(arr, BitonicIndex.SearchMode.EYTZINGER);
+        Random rand = new Random(7);
+        for (int count : new int[] { 1, 10, 1000, 20000 }) {
+            int[] targets = new int[count];
+            for (int i = 0; i < count; i++) {
+                targets[i] = rand.nextInt(10010) - 5;
+            }
+            assertBatchMatches(arr, targets, index.searchAll(targets));
+            Arrays.sort(targets);
+            assertBatchMatches(arr, targets, index.searchAll(targets));
+        }
+    }
+
+    @Test
+    public void testSingleElementArray() {
+        BitonicIndex index = new BitonicIndex(new int[] { 5 });
+        long[] results = index.searchAll(new int[] { 4, 5, 6 });
+        assertEquals(BitonicSearch.PACKED_NOT_FOUND, results[0]);
+        assertEquals(0, BitonicSearch.packedIndex(results[1]));
+        assertEquals(BitonicSearch.PACKED_NOT_FOUND, results[2]);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BitonicIndex(new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> new BitonicIndex(new int[] { 1 }).searchAll(null));
+    }
+
+    private static void assertBatchMatches(int[] arr, int[] targets, long[] results) {
+        assertEquals(targets.length, results.length);
+        for (int i = 0; i < targets.length; i++) {
+            assertEquals(BitonicSearch.bitonicSearchPacked(arr, targets[i]), results[i], "target " + targets[i]);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitonicSearchTest {
+
+    private static final int[] BITONIC = { 1, 3, 8, 12, 20, 15, 9, 4, 2 };
+
+    @Test
+    public void testFindPeakIndex() {
+        assertEquals(4, BitonicSearch.findPeakIndex(BITONIC).peakIndex);
+    }
+
+    @Test
+    public void testBitonicSearchFindsEveryValue() {
+        for (int i = 0; i < BITONIC.length; i++) {
+            BitonicSearch.BitonicSearchResult result = BitonicSearch.bitonicSearch(BITONIC, BITONIC[i]);
+            assertEquals(i, result.index);
+            assertEquals(-1, result.alternateIndex);
+        }
+    }
+
+    @Test
+    public void testBitonicSearchValueOnBothSides() {
+        int[] arr = { 1, 5, 9, 7, 5, 2 };
+        BitonicSearch.BitonicSearchResult result = BitonicSearch.bitonicSearch(arr, 5);
+        assertEquals(1, result.index);
+        assertEquals(4, result.alternateIndex);
+    }
+
+    @Test
+    public void testBitonicSearchNotFound() {
+        assertEquals(-1, BitonicSearch.bitonicSearch(BITONIC, 7).index);
+        assertEquals(-1, BitonicSearch.bitonicSearch(BITONIC, 100).index);
+    }
+
+    @Test
+    public void testPackedMatchesStepCountingVersion() {
+        int[] arr = BitonicSearch.generateBitonicArray(2000, 4000, 4f);
+        for (int target = arr[0] - 5; target <= 4005; target++) {
+            BitonicSearch.BitonicSearchResult expected = BitonicSearch.bitonicSearch(arr, target);
+            long packed = BitonicSearch.bitonicSearchPacked(arr, target);
+            assertEquals(expected.index, BitonicSearch.packedIndex(packed));
+            assertEquals(expected.alternateIndex, BitonicSearch.packedAlternateIndex(packed));
+        }
+    }
+
+    @Test
+    public void testPackedNotFound() {
+        assertEquals(BitonicSearch.PACKED_NOT_FOUND, BitonicSearch.bitonicSearchPacked(BITONIC, 7));
+        assertEquals(-1, BitonicSearch.packedIndex(BitonicSearch.PACKED_NOT_FOUND));
+        assertEquals(-1, BitonicSearch.packedAlternateIndex(BitonicSearch.PACKED_NOT_FOUND));
+    }
+
+    @Test
+    public void testBranchlessMatchesPacked() {
+        int[] arr = BitonicSearch.generateBitonicArray(1500, 3000, 4f);
+        for (int target = arr[0] - 5; target <= 3005; target++) {
+            assertEquals(BitonicSearch.bitonicSearchPacked(arr, target), BitonicSearch.bitonicSearchBranchless(arr, target));
+        }
+        assertEquals(BitonicSearch.PACKED_NOT_FOUND, BitonicSearch.bitonicSearchBranchless(new int[] { 3 }, 2));
+        assertEquals(0, BitonicSearch.packedIndex(BitonicSearch.bitonicSearchBranchless(new int[] { 3 }, 3)));
+    }
+
+    @Test
+    public void testBranchlessSearchEmptyRange() {
+        assertEquals(-1, BitonicSearch.branchlessSearch(BITONIC, 20, 5, 4, false));
+    }
+
+    @Test
+    public void testFindPeakWithPlateaus() {
+        assertEquals(3, BitonicSearch.findPeakIndexWithPlateaus(new int[] { 1, 2, 2, 5, 2, 2, 2, 1 }).peakIndex);
+        assertEquals(1, BitonicSearch.findPeakIndexWithPlateaus(new int[] { 3, 5, 3, 3, 3, 3, 3 }).peakIndex);
+        assertEquals(5, BitonicSearch.findPeakIndexWithPlateaus(new int[] { 3, 3, 3, 3, 3, 5, 3 }).peakIndex);
+        assertEquals(0, BitonicSearch.findPeakIndexWithPlateaus(new int[] { 4, 4, 4, 4 }).peakIndex);
+        assertEquals(0, BitonicSearch.findPeakIndexWithPlateaus(new int[] { 7 }).peakIndex);
+    }
+
+    @Test
+    public void testFindPeakWithPlateausRandom() {
+        for (double plateauProbability : new double[] { 0, 0.1, 0.5, 0.9, 1 }) {
+            for (int trial = 0; trial < 50; trial++) {
+                int size = 1 + (int) (Math.random() * 500);
+                int[] arr = BitonicSearch.generateBitonicArrayWithPlateaus(size, 1000, 4f, plateauProbability);
+                int max = Integer.MIN_VALUE;
+                for (int value : arr) {
+                    max = Math.max(max, value);
+                }
+                BitonicSearch.FindPeakResult result = BitonicSearch.findPeakIndexWithPlateaus(arr);
+                assertEquals(max, arr[result.peakIndex]);
+                assertTrue(result.stepCount <= 2 * size + 32, "steps " + result.stepCount + " for size " + size);
+            }
+        }
+    }
+
+    @Test
+    public void testBitonicSearchWithPlateaus() {
+        int[] arr = BitonicSearch.generateBitonicArrayWithPlateaus(800, 1600, 4f, 0.3);
+        for (int target = arr[0] - 3; target <= 1603; target++) {
+            BitonicSearch.BitonicSearchResult result = BitonicSearch.bitonicSearchWithPlateaus(arr, target);
+            boolean present = false;
+            for (int value : arr) {
+                present |= value == target;
+            }
+            if (present) {
+                assertEquals(target, arr[result.index]);
+            } else {
+                assertEquals(-1, result.index);
+            }
+            if (result.alternateIndex != -1) {
+                assertEquals(target, arr[result.alternateIndex]);
+            }
+        }
+    }
+
+    @Test
+    public void testPlateausOnStrictArrayCostLikeFindPeak() {
+        int[] arr = BitonicSearch.generateBitonicArray(4096, 8192, 4f);
+        assertEquals(BitonicSearch.findPeakIndex(arr).peakIndex, BitonicSearch.findPeakIndexWithPlateaus(arr).peakIndex);
+        assertEquals(BitonicSearch.findPeakIndex(arr).stepCount, BitonicSearch.findPeakIndexWithPlateaus(arr).stepCount);
+    }
+
+    @Test
+    public void testMainMethod() {
+        BitonicSearch.main(new String[]{});
+    }
+}
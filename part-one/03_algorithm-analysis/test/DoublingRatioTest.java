@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+public class DoublingRatioTest {
+
+    /**
+     * An experiment that allocates nothing, so that sizes near MAX_SIZE are cheap to "measure".
+     */
+    private static final DoublingRatio.Experiment<Integer> SIZE_ONLY = new DoublingRatio.Experiment<Integer>() {
+        public Integer generateInput(int n) {
+            return n;
+        }
+
+        public long run(Integer input) {
+            return input;
+        }
+
+        public int defaultStartSize() {
+            return 1;
+        }
+    };
+
+    @Test
+    public void testStopsBeforeTheSizeExceedsMaxSize() {
+        DoublingRatio.Measurement[] measurements = DoublingRatio.doublingTest(SIZE_ONLY, 1 << 28, 10);
+        assertEquals(2, measurements.length);
+        assertEquals(1 << 28, measurements[0].n);
+        assertEquals(1 << 29, measurements[1].n);
+        assertTrue(measurements[1].n <= DoublingRatio.MAX_SIZE);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> DoublingRatio.doublingTest(SIZE_ONLY, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> DoublingRatio.doublingTest(SIZE_ONLY, 0, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> DoublingRatio.doublingTest(SIZE_ONLY, DoublingRatio.MAX_SIZE + 1, 1));
+    }
+
+    @Test
+    public void testMainRejectsFewerThanOneStep() {
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+        try {
+            DoublingRatio.main(new String[] { "threesum", "100", "0" });
+            DoublingRatio.main(new String[] { "threesum", String.valueOf(Integer.MAX_VALUE), "2" });
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertTrue(out.toString().contains("at least 1"), out.toString());
+        assertTrue(out.toString().contains("at most " + DoublingRatio.MAX_SIZE), out.toString());
+        assertFalse(out.toString().contains("Experiment:"), out.toString());
+    }
+}
@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedBitonicArrayTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWriteThenSearchMatchesInMemory() throws IOException {
+        int[] arr = BitonicSearch.generateBitonicArray(5000, 10000, 4f);
+        Path file = tempDir.resolve("bitonic.bin");
+        MappedBitonicArray.write(arr, file);
+        assertEquals(arr.length * 4L, Files.size(file));
+
+        try (MappedBitonicArray mapped = new MappedBitonicArray(file)) {
+            assertEquals(arr.length, mapped.size());
+            assertEquals(BitonicSearch.findPeakIndex(arr).peakIndex, mapped.peakIndex());
+            for (int i = 0; i < arr.length; i += 37) {
+                assertEquals(arr[i], mapped.get(i));
+            }
+            for (int target = arr[0] - 3; target <= 10003; target++) {
+                BitonicSearch.BitonicSearchResult expected = BitonicSearch.bitonicSearch(arr, target);
+                MappedBitonicArray.SearchResult actual = mapped.bitonicSearch(target);
+                assertEquals(expected.index, actual.index);
+                assertEquals(expected.alternateIndex, actual.alternateIndex);
+            }
+        }
+    }
+
+    @Test
+    public void testLongValues() throws IOException {
+        long[] values = { -5L, 3L, 1L << 40, 7L, 2L };
+        Path file = tempDir.resolve("bitonic-long.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            for (long value : values) {
+                out.writeLong(value);
+            }
+        }
+        try (MappedBitonicArray mapped = new MappedBitonicArray(file, MappedBitonicArray.ValueType.LONG,
+                java.nio.ByteOrder.BIG_ENDIAN)) {
+            assertEquals(5, mapped.size());
+            assertEquals(2, mapped.peakIndex());
+            assertEquals(2, mapped.bitonicSearch(1L << 40).index);
+            assertEquals(4, mapped.bitonicSearch(2L).index);
+            assertEquals(-1, mapped.bitonicSearch(4L).index);
+        }
+    }
+
+    @Test
+    public void testWriteLongsThenSearchMatchesInMemory() throws IOException {
+        // Values beyond the int range, so a file read back as INT would not match
+        int[] ints = BitonicSearch.generateBitonicArray(5000, 10000, 4f);
+        long[] values = new long[ints.length];
+        for (int i = 0; i < ints.length; i++) {
+            values[i] = ints[i] * (1L << 33) + 1;
+        }
+        Path file = tempDir.resolve("bitonic-long-written.bin");
+        MappedBitonicArray.write(values, file);
+        assertEquals(values.length * 8L, Files.size(file));
+
+        try (MappedBitonicArray mapped = new MappedBitonicArray(file, MappedBitonicArray.ValueType.LONG,
+                java.nio.ByteOrder.BIG_ENDIAN)) {
+            assertEquals(values.length, mapped.size());
+            assertEquals(BitonicSearch.findPeakIndex(ints).peakIndex, mapped.peakIndex());
+            for (int i = 0; i < values.length; i += 37) {
+                assertEquals(values[i], mapped.get(i));
+            }
+            for (int target = ints[0] - 3; target <= 10003; target += 7) {
+                BitonicSearch.BitonicSearchResult expected = BitonicSearch.bitonicSearch(ints, target);
+                MappedBitonicArray.SearchResult actual = mapped.bitonicSearch(target * (1L << 33) + 1);
+                assertEquals(expected.index, actual.index);
+                assertEquals(expected.alternateIndex, actual.alternateIndex);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidFileSize() throws IOException {
+        Path file = tempDir.resolve("odd.bin");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertThrows(IllegalArgumentException.class, () -> new MappedBitonicArray(file));
+    }
+}
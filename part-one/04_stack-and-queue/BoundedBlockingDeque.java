@@ -0,0 +1,538 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded, blocking deque for passing work between threads.
+ * <p>
+ * It is a fixed circular array like {@link Deque} (power-of-2 length, {@code & mask} indexing), with
+ * two locks as in the two-lock queue of Michael and Scott: producers add at the back under
+ * {@code putLock} and consumers remove from the front under {@code takeLock}, so a producer and a
+ * consumer never wait for each other. The item count is an {@link AtomicInteger}, which both sides
+ * read to know whether there is room or work, and which orders the writes to the array between them.
+ * <p>
+ * {@link #addAll} and {@link #drainTo} move a whole batch under one lock acquisition and signal the
+ * other side once, instead of paying a lock round trip and a wake-up per item.
+ * <p>
+ * The other two ends ({@link #offerFirst}, {@link #pollLast}) touch both indices, so they take both
+ * locks; they are meant for occasional use, such as putting back a task that could not run.
+ */
+public class BoundedBlockingDeque<Item> {
+
+    /**
+     * The largest power-of-2 array length.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The array holding the items in a circular manner. Its length is a power of 2, at least capacity.
+     */
+    private final Item[] items;
+
+    /**
+     * Equals items.length - 1, to wrap indices with {@code &}.
+     */
+    private final int mask;
+
+    /**
+     * The maximum number of items in the deque.
+     */
+    private final int capacity;
+
+    /**
+     * The number of items currently in the deque.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * The index of the first item. Guarded by takeLock (and both locks for offerFirst).
+     */
+    private int front;
+
+    /**
+     * The index after the last item. Guarded by putLock (and both locks for pollLast).
+     */
+    private int back;
+
+    /**
+     * The lock held by consumers removing from the front.
+     */
+    private final ReentrantLock takeLock = new ReentrantLock();
+
+    /**
+     * Signalled when the deque goes from empty to non-empty.
+     */
+    private final Condition notEmpty = takeLock.newCondition();
+
+    /**
+     * The lock held by producers adding at the back.
+     */
+    private final ReentrantLock putLock = new ReentrantLock();
+
+    /**
+     * Signalled when the deque goes from full to not full.
+     */
+    private final Condition notFull = putLock.newCondition();
+
+    /**
+     * Initializes an empty deque that holds at most {@code capacity} items.
+     * @param capacity the maximum number of items.
+     * @throws IllegalArgumentException if capacity is less than 1 or greater than 2^30.
+     */
+    public BoundedBlockingDeque(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        int length = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.items = (Item[]) new Object[length];
+        this.mask = length - 1;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Checks if the deque is empty. With other threads running, the answer may be stale.
+     * @return true if the deque is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque. With other threads running, it is an estimate.
+     * @return the size of the deque.
+     */
+    public int size() {
+        return count.get();
+    }
+
+    /**
+     * Returns the number of items that can be added before the deque is full.
+     * @return capacity minus size.
+     */
+    public int remainingCapacity() {
+        return capacity - count.get();
+    }
+
+    /**
+     * Adds an item to the back, waiting for room if the deque is full.
+     * @param item the item to be added to the back.
+     * @throws IllegalArgumentException if the item is null.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void putLast(Item item) throws InterruptedException {
+        offerLast(item, -1);
+    }
+
+    /**
+     * Adds an item to the back if there is room, without waiting.
+     * @param item the item to be added to the back.
+     * @return true if the item was added, false if the deque is full.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    public boolean offerLast(Item item) {
+        try {
+            return offerLast(item, 0);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e); // Never waits, so it cannot be interrupted
+        }
+    }
+
+    /**
+     * Adds an item to the back, waiting up to the timeout for room if the deque is full.
+     * @param item the item to be added to the back.
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return true if the item was added, false if the deque stayed full.
+     * @throws IllegalArgumentException if the item is null.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean offerLast(Item item, long timeout, TimeUnit unit) throws InterruptedException {
+        return offerLast(item, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Adds the items {@code batch[from..to)} to the back in order, waiting for room as needed.
+     * Each time it gets the lock, it adds as many items as fit at once.
+     * @param batch the items to add.
+     * @param from the index of the first item to add (inclusive).
+     * @param to the index after the last item to add (exclusive).
+     * @throws IllegalArgumentException if the range is invalid or contains a null item
+     *         (then nothing is added).
+     * @throws InterruptedException if interrupted while waiting (the items before that are added).
+     */
+    public void addAll(Item[] batch, int from, int to) throws InterruptedException {
+        addAll(batch, from, to, -1);
+    }
+
+    /**
+     * Adds the items {@code batch[from..to)} to the back in order, waiting up to the timeout in total.
+     * @param batch the items to add.
+     * @param from the index of the first item to add (inclusive).
+     * @param to the index after the last item to add (exclusive).
+     * @param timeout how long to wait in total.
+     * @param unit the unit of the timeout.
+     * @return the number of items added, which is less than {@code to - from} if the timeout passed.
+     * @throws IllegalArgumentException if the range is invalid or contains a null item
+     *         (then nothing is added).
+     * @throws InterruptedException if interrupted while waiting (the items before that are added).
+     */
+    public int addAll(Item[] batch, int from, int to, long timeout, TimeUnit unit) throws InterruptedException {
+        return addAll(batch, from, to, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Adds an item to the front if there is room, without waiting. It takes both locks.
+     * @param item the item to be added to the front.
+     * @return true if the item was added, false if the deque is full.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    public boolean offerFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        int c;
+        fullyLock();
+        try {
+            if (count.get() == capacity) {
+                return false;
+            }
+            front = (front - 1) & mask;
+            items[front] = item;
+            c = count.getAndIncrement();
+            if (c == 0) {
+                notEmpty.signal();
+            }
+            if (c + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            fullyUnlock();
+        }
+        return true;
+    }
+
+    /**
+     * Removes and returns the item at the front, waiting for one if the deque is empty.
+     * @return the item removed from the front.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Item takeFirst() throws InterruptedException {
+        return pollFirst(-1);
+    }
+
+    /**
+     * Removes and returns the item at the front, without waiting.
+     * @return the item removed from the front, or null if the deque is empty.
+     */
+    public Item pollFirst() {
+        try {
+            return pollFirst(0);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e); // Never waits, so it cannot be interrupted
+        }
+    }
+
+    /**
+     * Removes and returns the item at the front, waiting up to the timeout for one.
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return the item removed from the front, or null if the deque stayed empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Item pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        return pollFirst(Math.max(0, unit.toNanos(timeout)));
+    }
+
+    /**
+     * Moves up to {@code max} items from the front into {@code buffer[0..)}, without waiting.
+     * All of them are taken under one lock acquisition.
+     * @param buffer the array to fill, front item first.
+     * @param max the maximum number of items to move.
+     * @return the number of items moved (0 if the deque is empty).
+     * @throws IllegalArgumentException if max is negative or greater than the buffer length.
+     */
+    public int drainTo(Item[] buffer, int max) {
+        if (max < 0 || max > buffer.length) {
+            throw new IllegalArgumentException("max must be between 0 and the buffer length");
+        }
+        int n;
+        int c;
+        takeLock.lock();
+        try {
+            n = Math.min(max, count.get());
+            if (n == 0) {
+                return 0;
+            }
+            for (int i = 0; i < n; i++) {
+                buffer[i] = items[front];
+                items[front] = null;
+                front = (front + 1) & mask;
+            }
+            c = count.getAndAdd(-n);
+            if (c > n) {
+                notEmpty.signal(); // Pass the turn to the next consumer
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c == capacity) {
+            signalNotFull();
+        }
+        return n;
+    }
+
+    /**
+     * Removes and returns the item at the back, without waiting. It takes both locks.
+     * @return the item removed from the back, or null if the deque is empty.
+     */
+    public Item pollLast() {
+        Item item;
+        fullyLock();
+        try {
+            if (count.get() == 0) {
+                return null;
+            }
+            back = (back - 1) & mask;
+            item = items[back];
+            items[back] = null;
+            int c = count.getAndDecrement();
+            if (c == capacity) {
+                notFull.signal();
+            }
+            if (c > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            fullyUnlock();
+        }
+        return item;
+    }
+
+    /**
+     * Adds an item to the back, waiting up to nanos for room (forever if negative).
+     */
+    private boolean offerLast(Item item, long nanos) throws InterruptedException {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        int c;
+        lock(putLock, nanos);
+        try {
+            while (count.get() == capacity) {
+                if (nanos == 0) {
+                    return false;
+                }
+                if (nanos < 0) {
+                    notFull.await();
+                } else {
+                    nanos = Math.max(0, notFull.awaitNanos(nanos));
+                }
+            }
+            items[back] = item;
+            back = (back + 1) & mask;
+            c = count.getAndIncrement();
+            if (c + 1 < capacity) {
+                notFull.signal(); // Pass the turn to the next producer
+            }
+        } finally {
+            putLock.unlock();
+        }
+        if (c == 0) {
+            signalNotEmpty();
+        }
+        return true;
+    }
+
+    /**
+     * Adds batch[from..to) to the back, waiting up to nanos in total (forever if negative).
+     * @return the number of items added.
+     */
+    private int addAll(Item[] batch, int from, int to, long nanos) throws InterruptedException {
+        if (from < 0 || from > to || to > batch.length) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ")");
+        }
+        for (int i = from; i < to; i++) {
+            if (batch[i] == null) {
+                throw new IllegalArgumentException("Item cannot be null");
+            }
+        }
+        int added = 0;
+        while (from + added < to) {
+            int n;
+            int c;
+            lock(putLock, nanos);
+            try {
+                while (count.get() == capacity) {
+                    if (nanos == 0) {
+                        return added;
+                    }
+                    if (nanos < 0) {
+                        notFull.await();
+                    } else {
+                        nanos = Math.max(0, notFull.awaitNanos(nanos));
+                    }
+                }
+                n = Math.min(to - from - added, capacity - count.get());
+                for (int i = 0; i < n; i++) {
+                    items[back] = batch[from + added + i];
+                    back = (back + 1) & mask;
+                }
+                c = count.getAndAdd(n);
+                if (c + n < capacity) {
+                    notFull.signal();
+                }
+            } finally {
+                putLock.unlock();
+            }
+            added += n;
+            if (c == 0) {
+                signalNotEmpty();
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes the item at the front, waiting up to nanos for one (forever if negative).
+     */
+    private Item pollFirst(long nanos) throws InterruptedException {
+        Item item;
+        int c;
+        lock(takeLock, nanos);
+        try {
+            while (count.get() == 0) {
+                if (nanos == 0) {
+                    return null;
+                }
+                if (nanos < 0) {
+                    notEmpty.await();
+                } else {
+                    nanos = Math.max(0, notEmpty.awaitNanos(nanos));
+                }
+            }
+            item = items[front];
+            items[front] = null;
+            front = (front + 1) & mask;
+            c = count.getAndDecrement();
+            if (c > 1) {
+                notEmpty.signal(); // Pass the turn to the next consumer
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        if (c == capacity) {
+            signalNotFull();
+        }
+        return item;
+    }
+
+    /**
+     * Takes the lock, interruptibly unless the call must not wait (nanos == 0).
+     */
+    private static void lock(ReentrantLock lock, long nanos) throws InterruptedException {
+        if (nanos == 0) {
+            lock.lock();
+        } else {
+            lock.lockInterruptibly();
+        }
+    }
+
+    /**
+     * Wakes a waiting consumer. Called by producers after the deque was empty.
+     */
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes a waiting producer. Called by consumers after the deque was full.
+     */
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    /**
+     * Takes both locks, always in the same order to avoid deadlock.
+     */
+    private void fullyLock() {
+        putLock.lock();
+        takeLock.lock();
+    }
+
+    /**
+     * Releases both locks.
+     */
+    private void fullyUnlock() {
+        takeLock.unlock();
+        putLock.unlock();
+    }
+
+    /**
+     * Main method for testing the BoundedBlockingDeque implementation.
+     * A producer passes n items in batches to a consumer through a small deque, then it prints the time taken.
+     * @param args optional: the number of items (default 1000000) and the capacity (default 1024).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = 1000000;
+        int capacity = 1024;
+        try {
+            if (args.length > 0) {
+                n = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                capacity = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid arguments. Using defaults: 1000000 items, capacity 1024.");
+            n = 1000000;
+            capacity = 1024;
+        }
+
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(capacity);
+        final int total = n;
+        long[] sum = new long[1];
+        Thread consumer = new Thread(() -> {
+            Integer[] buffer = new Integer[64];
+            int received = 0;
+            try {
+                while (received < total) {
+                    sum[0] += deque.takeFirst(); // Wait for work, then take whatever else is ready
+                    int got = deque.drainTo(buffer, buffer.length);
+                    for (int i = 0; i < got; i++) {
+                        sum[0] += buffer[i];
+                    }
+                    received += 1 + got;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.nanoTime();
+        consumer.start();
+        Integer[] batch = new Integer[64];
+        for (int i = 0; i < n; i += batch.length) {
+            int length = Math.min(batch.length, n - i);
+            for (int j = 0; j < length; j++) {
+                batch[j] = i + j;
+            }
+            deque.addAll(batch, 0, length);
+        }
+        consumer.join();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Passed %d items in %.1f ms (sum %d, expected %d)%n",
+                n, elapsed / 1e6, sum[0], (long) n * (n - 1) / 2);
+    }
+}
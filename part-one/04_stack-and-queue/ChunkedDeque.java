@@ -0,0 +1,382 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double-ended queue built from a doubly linked list of fixed-size array blocks.
+ * <p>
+ * {@link Deque} keeps its items in one array and copies all of them when it doubles or shrinks, so a
+ * single add or remove on a large deque can take O(n) time and briefly needs the old and the new
+ * array at once. Here the deque grows by linking a new block at either end and shrinks by unlinking
+ * an empty one, so every operation is O(1) in the worst case, not just amortized, and no item is ever
+ * copied. The cost is one extra pointer hop when crossing a block boundary.
+ * <p>
+ * One emptied block is kept as a spare, so a deque whose size goes back and forth across a block
+ * boundary does not allocate a new block each time.
+ */
+public class ChunkedDeque<Item> implements Iterable<Item> {
+
+    /**
+     * The default number of items per block.
+     */
+    private static final int DEFAULT_BLOCK_SIZE = 256;
+
+    /**
+     * A block of items, linked to its neighbours.
+     */
+    private static final class Block<Item> {
+        /**
+         * The items of the block; only the slots between the deque's indices are in use.
+         */
+        private final Item[] items;
+
+        /**
+         * The block towards the front, or null for the first block.
+         */
+        private Block<Item> prev;
+
+        /**
+         * The block towards the back, or null for the last block.
+         */
+        private Block<Item> next;
+
+        Block(int blockSize) {
+            this.items = (Item[]) new Object[blockSize];
+        }
+    }
+
+    /**
+     * The number of items per block.
+     */
+    private final int blockSize;
+
+    /**
+     * The first block, holding the front item.
+     */
+    private Block<Item> head;
+
+    /**
+     * The last block, holding the back item. The same as head when everything fits in one block.
+     */
+    private Block<Item> tail;
+
+    /**
+     * The index of the front item in the head block.
+     */
+    private int headIndex;
+
+    /**
+     * The index after the back item in the tail block.
+     */
+    private int tailIndex;
+
+    /**
+     * The number of items in the deque.
+     */
+    private int size;
+
+    /**
+     * An emptied block kept for reuse, or null.
+     */
+    private Block<Item> spare;
+
+    /**
+     * Initializes an empty deque with blocks of 256 items.
+     */
+    public ChunkedDeque() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Initializes an empty deque with blocks of the given size.
+     * @param blockSize the number of items per block.
+     * @throws IllegalArgumentException if blockSize is less than 2.
+     */
+    public ChunkedDeque(int blockSize) {
+        if (blockSize < 2) {
+            throw new IllegalArgumentException("Block size must be at least 2");
+        }
+        this.blockSize = blockSize;
+        this.head = new Block<>(blockSize);
+        this.tail = head;
+        this.headIndex = blockSize / 2; // Start in the middle, so that both ends have room
+        this.tailIndex = headIndex;
+        this.size = 0;
+    }
+
+    /**
+     * Checks if the deque is empty.
+     * @return true if the deque is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of items currently in the deque.
+     * @return the size of the deque.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an item to the front of the deque.
+     * If the head block is full, it links a new block before it.
+     * @param item the item to be added to the front.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        if (headIndex == 0) {
+            Block<Item> block = newBlock();
+            block.next = head;
+            head.prev = block;
+            head = block;
+            headIndex = blockSize;
+        }
+        head.items[--headIndex] = item;
+        size++;
+    }
+
+    /**
+     * Adds an item to the back of the deque.
+     * If the tail block is full, it links a new block after it.
+     * @param item the item to be added to the back.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        if (tailIndex == blockSize) {
+            Block<Item> block = newBlock();
+            block.prev = tail;
+            tail.next = block;
+            tail = block;
+            tailIndex = 0;
+        }
+        tail.items[tailIndex++] = item;
+        size++;
+    }
+
+    /**
+     * Removes and returns the item from the front of the deque.
+     * If it empties the head block, the block is unlinked.
+     * @return the item removed from the front.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public Item removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        Item removingItem = head.items[headIndex];
+        head.items[headIndex++] = null; // Clear the item
+        size--;
+        if (headIndex == blockSize && head != tail) {
+            Block<Item> emptied = head;
+            head = head.next;
+            head.prev = null;
+            headIndex = 0;
+            release(emptied);
+        } else if (size == 0) {
+            recenter();
+        }
+        return removingItem;
+    }
+
+    /**
+     * Removes and returns the item from the back of the deque.
+     * If it empties the tail block, the block is unlinked.
+     * @return the item removed from the back.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public Item removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        Item removingItem = tail.items[--tailIndex];
+        tail.items[tailIndex] = null; // Clear the item
+        size--;
+        if (tailIndex == 0 && tail != head) {
+            Block<Item> emptied = tail;
+            tail = tail.prev;
+            tail.next = null;
+            tailIndex = blockSize;
+            release(emptied);
+        } else if (size == 0) {
+            recenter();
+        }
+        return removingItem;
+    }
+
+    /**
+     * An iterator over the items from front to back, block by block.
+     */
+    private class ChunkedDequeIterator implements Iterator<Item> {
+        /**
+         * The block of the next item.
+         */
+        private Block<Item> block = head;
+
+        /**
+         * The index of the next item in its block.
+         */
+        private int index = headIndex;
+
+        /**
+         * The number of items left to return.
+         */
+        private int remaining = size;
+
+        /**
+         * Checks if there are more items to iterate over.
+         * @return true if there are more items, false otherwise.
+         */
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Returns the next item in the iteration.
+         * @return the next item.
+         * @throws NoSuchElementException if there are no more items to iterate.
+         */
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more items to iterate");
+            }
+            if (index == blockSize) {
+                block = block.next;
+                index = 0;
+            }
+            remaining--;
+            return block.items[index++];
+        }
+
+        /**
+         * Removes the current item from the iteration.
+         * This operation is not supported in this implementation.
+         * @throws UnsupportedOperationException if called.
+         */
+        public void remove() {
+            throw new UnsupportedOperationException("Remove operation is not supported");
+        }
+    }
+
+    /**
+     * Returns an iterator over the items in the deque from front to back.
+     * @return an iterator for the deque.
+     */
+    public Iterator<Item> iterator() {
+        return new ChunkedDequeIterator();
+    }
+
+    /**
+     * Returns a string representation of the deque, showing the items from front to back.
+     * @return a string representation of the deque.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (Item item : this) {
+            sb.append(item).append(" ");
+        }
+        if (size > 0) {
+            sb.setLength(sb.length() - 1); // Remove the last space
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Main method for testing the ChunkedDeque implementation.
+     * It fills a deque with n items and drains it, and prints the slowest single operation
+     * next to the same workload on {@link Deque}.
+     * @param args optional: the number of items (default 4000000).
+     */
+    public static void main(String[] args) {
+        int n = 4000000;
+        try {
+            if (args.length > 0) {
+                n = Integer.parseInt(args[0]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid argument. Using default: 4000000 items.");
+            n = 4000000;
+        }
+
+        ChunkedDeque<Integer> small = new ChunkedDeque<>(4);
+        small.addFirst(1);
+        small.addLast(2);
+        small.addFirst(0);
+        small.addLast(3);
+        small.addLast(4);
+        System.out.printf("Deque contents: %s%n", small); // [0 1 2 3 4]
+        System.out.println("Removed from front: " + small.removeFirst()); // 0
+        System.out.println("Removed from back: " + small.removeLast());   // 4
+
+        Integer item = 42;
+        for (int round = 0; round < 3; round++) {
+            ChunkedDeque<Integer> chunked = new ChunkedDeque<>();
+            Deque<Integer> deque = new Deque<>();
+            long chunkedMax = 0;
+            long dequeMax = 0;
+            for (int i = 0; i < n; i++) {
+                long start = System.nanoTime();
+                chunked.addLast(item);
+                long middle = System.nanoTime();
+                deque.addLast(item);
+                long end = System.nanoTime();
+                chunkedMax = Math.max(chunkedMax, middle - start);
+                dequeMax = Math.max(dequeMax, end - middle);
+            }
+            for (int i = 0; i < n; i++) {
+                long start = System.nanoTime();
+                chunked.removeFirst();
+                long middle = System.nanoTime();
+                deque.removeFirst();
+                long end = System.nanoTime();
+                chunkedMax = Math.max(chunkedMax, middle - start);
+                dequeMax = Math.max(dequeMax, end - middle);
+            }
+            System.out.printf("Round %d, slowest operation: ChunkedDeque %.3f ms, Deque %.3f ms%n",
+                    round, chunkedMax / 1e6, dequeMax / 1e6);
+        }
+    }
+
+    /**
+     * Returns the spare block if there is one, or a new block.
+     * @return an empty, unlinked block.
+     */
+    private Block<Item> newBlock() {
+        Block<Item> block = spare;
+        if (block == null) {
+            return new Block<>(blockSize);
+        }
+        spare = null;
+        return block;
+    }
+
+    /**
+     * Keeps an emptied block as the spare, or drops it if there already is one.
+     * @param block the unlinked block, with all its slots cleared.
+     */
+    private void release(Block<Item> block) {
+        block.prev = null;
+        block.next = null;
+        if (spare == null) {
+            spare = block;
+        }
+    }
+
+    /**
+     * Moves both indices to the middle of the only block, once the deque is empty.
+     */
+    private void recenter() {
+        headIndex = blockSize / 2;
+        tailIndex = headIndex;
+    }
+}
@@ -1,8 +1,17 @@
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 
 public class Deque<Item> implements Iterable<Item> {
 
+    /**
+     * The largest power-of-2 capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
     /**
      * An array holding the items in the deque in a circular manner.
      */
@@ -30,11 +39,81 @@ public class Deque<Item> implements Iterable<Item> {
      */
     private int back;
 
+    /**
+     * Equals capacity - 1. Since the capacity is a power of 2, {@code i & mask} wraps an index
+     * around the array like {@code i % capacity}, but without a division.
+     */
+    private int mask;
+
+    /**
+     * The capacity requested at construction (rounded up to a power of 2).
+     * The deque never shrinks below it, so a presized deque keeps its array when it is drained.
+     */
+    private final int minCapacity;
+
+    /**
+     * Decides when the deque shrinks.
+     */
+    private final ResizePolicy resizePolicy;
+
+    /**
+     * The size at or below which the deque shrinks, from the resize policy for the current capacity.
+     */
+    private int shrinkThreshold;
+
+    /**
+     * The number of times the underlying array was replaced.
+     */
+    private int resizeCount;
+
+    /**
+     * The total number of items copied from an old array to a new one.
+     */
+    private long copiedItemCount;
+
+    /**
+     * The number of changes to the deque (adds, removes, resizes). Iterators and spliterators remember it
+     * when they start, and fail fast if it has changed, instead of reading a moved or resized array.
+     */
+    private int modCount;
+
     /*
      * Initializes an empty deque with a default capacity of 1.
      */
     public Deque() {
-        this.capacity = 1; // Initial capacity
+        this(1);
+    }
+
+    /**
+     * Initializes an empty deque that can hold {@code initialCapacity} items without resizing.
+     * Use it when the expected size is known, to skip the early resizes of the doubling cascade.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30.
+     */
+    public Deque(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Initializes an empty deque with an initial capacity and a policy for when to shrink.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     *        The deque never shrinks below it.
+     * @param resizePolicy when to shrink, e.g. {@link ResizePolicy#NEVER_SHRINK}.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30,
+     *         or if resizePolicy is null.
+     */
+    public Deque(int initialCapacity, ResizePolicy resizePolicy) {
+        if (resizePolicy == null) {
+            throw new IllegalArgumentException("Resize policy cannot be null");
+        }
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = powerOfTwoAtLeast(initialCapacity);
+        this.mask = capacity - 1;
+        this.minCapacity = capacity;
+        this.resizePolicy = resizePolicy;
+        this.shrinkThreshold = resizePolicy.shrinkThreshold(capacity);
         this.items = (Item[]) new Object[capacity]; // Create an array of items
         this.size = 0;
         this.front = 0;
@@ -70,9 +149,10 @@ public class Deque<Item> implements Iterable<Item> {
         if (size == capacity) {
             resize(capacity * 2);
         }
-        front = (front - 1 + capacity) % capacity; // Move front back
+        front = (front - 1) & mask; // Move front back
         items[front] = item; // Add item at the current front index
         size++;
+        modCount++;
     }
 
     /**
@@ -89,14 +169,15 @@ public class Deque<Item> implements Iterable<Item> {
             resize(capacity * 2);
         }
         items[back] = item; // Add item at the current back index (except when the deque is empty)
-        back = (back + 1) % capacity; // Move back forward
+        back = (back + 1) & mask; // Move back forward
         size++;
+        modCount++;
     }
 
     /**
      * Removes and returns the item from the front of the deque.
      * If the deque is empty, it throws a NoSuchElementException.
-     * If the size drops to a quarter of the capacity, it halves the capacity.
+     * If the size drops to the shrink threshold, it shrinks as the resize policy says (but never below the initial capacity).
      * @return the item removed from the front.
      * @throws NoSuchElementException if the deque is empty.
      */
@@ -106,10 +187,11 @@ public class Deque<Item> implements Iterable<Item> {
         }
         Item removingItem = items[front];
         items[front] = null; // Clear the item
-        front = (front + 1) % capacity; // Move front forward
+        front = (front + 1) & mask; // Move front forward
         size--;
-        if (size > 0 && size == capacity / 4) {
-            resize(capacity / 2);
+        modCount++;
+        if (size > 0 && size <= shrinkThreshold && capacity > minCapacity) {
+            shrink();
         }
         return removingItem;
     }
@@ -117,7 +199,7 @@ public class Deque<Item> implements Iterable<Item> {
     /**
      * Removes and returns the item from the back of the deque.
      * If the deque is empty, it throws a NoSuchElementException.
-     * If the size drops to a quarter of the capacity, it halves the capacity.
+     * If the size drops to the shrink threshold, it shrinks as the resize policy says (but never below the initial capacity).
      * @return the item removed from the back.
      * @throws NoSuchElementException if the deque is empty.
      */
@@ -125,16 +207,180 @@ public class Deque<Item> implements Iterable<Item> {
         if (isEmpty()) {
             throw new NoSuchElementException("Deque is empty");
         }
-        back = (back - 1 + capacity) % capacity; // Move back back
+        back = (back - 1) & mask; // Move back back
         Item removingItem = items[back];
         items[back] = null; // Clear the item
         size--;
-        if (size > 0 && size == capacity / 4) {
-            resize(capacity / 2);
+        modCount++;
+        if (size > 0 && size <= shrinkThreshold && capacity > minCapacity) {
+            shrink();
         }
         return removingItem;
     }
 
+    /**
+     * Adds the items {@code source[from..to)} to the back of the deque, in order.
+     * It grows the array at most once and copies the items with at most two
+     * {@code System.arraycopy} calls (one per side of the wrap-around point).
+     * @param source the items to add.
+     * @param from the index of the first item to add (inclusive).
+     * @param to the index after the last item to add (exclusive).
+     * @throws IllegalArgumentException if the range is invalid, if it contains a null item
+     *         (then nothing is added), or if the deque would hold more than 2^30 items.
+     */
+    public void addAllLast(Item[] source, int from, int to) {
+        int n = checkBatch(source, from, to);
+        ensureCapacity(size + n);
+        int firstPart = Math.min(n, capacity - back);
+        System.arraycopy(source, from, items, back, firstPart);
+        System.arraycopy(source, from + firstPart, items, 0, n - firstPart);
+        back = (back + n) & mask;
+        size += n;
+        modCount++;
+    }
+
+    /**
+     * Adds the items {@code source[from..to)} to the front of the deque, keeping their order:
+     * afterwards {@code source[from]} is the first item. (The same as calling addFirst on
+     * {@code source[to - 1]} down to {@code source[from]}.)
+     * It grows the array at most once and copies the items with at most two {@code System.arraycopy} calls.
+     * @param source the items to add.
+     * @param from the index of the first item to add (inclusive).
+     * @param to the index after the last item to add (exclusive).
+     * @throws IllegalArgumentException if the range is invalid, if it contains a null item
+     *         (then nothing is added), or if the deque would hold more than 2^30 items.
+     */
+    public void addAllFirst(Item[] source, int from, int to) {
+        int n = checkBatch(source, from, to);
+        ensureCapacity(size + n);
+        int newFront = (front - n) & mask;
+        int firstPart = Math.min(n, capacity - newFront);
+        System.arraycopy(source, from, items, newFront, firstPart);
+        System.arraycopy(source, from + firstPart, items, 0, n - firstPart);
+        front = newFront;
+        size += n;
+        modCount++;
+    }
+
+    /**
+     * Performs the action on each item from front to back.
+     * The items sit in at most two contiguous runs of the array (before and after the wrap-around point),
+     * so this walks each run with a plain index instead of wrapping every index like the iterator.
+     * @param action the action to perform on each item.
+     * @throws ConcurrentModificationException if the action changed the deque.
+     */
+    @Override
+    public void forEach(Consumer<? super Item> action) {
+        int expectedModCount = modCount;
+        Item[] array = items;
+        int start = front;
+        int count = size;
+        int firstEnd = Math.min(start + count, array.length);
+        for (int i = start; i < firstEnd && modCount == expectedModCount; i++) {
+            action.accept(array[i]);
+        }
+        int secondEnd = count - (firstEnd - start);
+        for (int i = 0; i < secondEnd && modCount == expectedModCount; i++) {
+            action.accept(array[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException("Deque was modified during forEach");
+        }
+    }
+
+    /**
+     * A spliterator over a range of positions in the deque (0 is the front item).
+     * It splits by halving its range, so a parallel stream gets balanced, exactly sized chunks.
+     */
+    private class DequeSpliterator implements Spliterator<Item> {
+        /**
+         * The position of the next item to visit.
+         */
+        private int position;
+
+        /**
+         * The position after the last item to visit.
+         */
+        private final int fence;
+
+        /**
+         * The modCount of the deque when the spliterator was created.
+         */
+        private final int expectedModCount;
+
+        DequeSpliterator(int position, int fence, int expectedModCount) {
+            this.position = position;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            checkForComodification();
+            if (position >= fence) {
+                return false;
+            }
+            action.accept(items[(front + position++) & mask]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            checkForComodification();
+            // Walk the range as up to two contiguous runs of the array
+            int start = (front + position) & mask;
+            int count = fence - position;
+            int firstEnd = Math.min(start + count, capacity);
+            for (int i = start; i < firstEnd; i++) {
+                action.accept(items[i]);
+            }
+            int secondEnd = count - (firstEnd - start);
+            for (int i = 0; i < secondEnd; i++) {
+                action.accept(items[i]);
+            }
+            position = fence;
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            int middle = (position + fence) >>> 1;
+            if (middle <= position) {
+                return null;
+            }
+            Spliterator<Item> prefix = new DequeSpliterator(position, middle, expectedModCount);
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Deque was modified during traversal");
+            }
+        }
+    }
+
+    /**
+     * Returns a spliterator over the items from front to back, which splits evenly for parallel streams,
+     * e.g. {@code StreamSupport.stream(deque.spliterator(), true)}.
+     * It fails fast with a ConcurrentModificationException if the deque is modified while it is in use.
+     * @return a spliterator for the deque.
+     */
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new DequeSpliterator(0, size, modCount);
+    }
+
     /**
      * An iterator for the Deque that allows iteration from front to back.
      */
@@ -147,10 +393,15 @@ public class Deque<Item> implements Iterable<Item> {
          * The index where the iteration ends, which is front + size.
          */
         private int endIndex;
+        /**
+         * The modCount of the deque when the iteration started.
+         */
+        private final int expectedModCount;
 
         public DequeIterator() {
             this.currentIndex = front;
             this.endIndex = front + size;
+            this.expectedModCount = modCount;
         }
 
         /**
@@ -165,13 +416,17 @@ public class Deque<Item> implements Iterable<Item> {
          * Returns the next item in the iteration.
          * @return the next item.
          * @throws NoSuchElementException if there are no more items to iterate.
+         * @throws ConcurrentModificationException if the deque was changed since the iteration started.
          */
         public Item next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException("Deque was modified during iteration");
+            }
             if (!hasNext()) {
                 throw new NoSuchElementException("No more items to iterate");
             }
 
-            return items[currentIndex++ % capacity];
+            return items[currentIndex++ & mask];
         }
 
         /**
@@ -186,12 +441,75 @@ public class Deque<Item> implements Iterable<Item> {
 
     /**
      * Returns an iterator over the items in the deque from front to back.
+     * It reads the live array, so it is fail-fast: once the deque is modified, its next call to next()
+     * throws a ConcurrentModificationException. Use {@link #snapshotIterator()} to keep changing the
+     * deque during a long iteration.
      * @return an iterator for the deque.
      */
     public Iterator<Item> iterator() {
         return new DequeIterator();
     }
 
+    /**
+     * An iterator over a copy of the items, taken when it is created.
+     */
+    private class SnapshotIterator implements Iterator<Item> {
+        /**
+         * The items from front to back at the time of the snapshot.
+         */
+        private final Item[] snapshot;
+
+        /**
+         * The index of the next item in the snapshot.
+         */
+        private int currentIndex;
+
+        public SnapshotIterator() {
+            this.snapshot = (Item[]) new Object[size];
+            int firstPart = Math.min(size, capacity - front);
+            System.arraycopy(items, front, snapshot, 0, firstPart);
+            System.arraycopy(items, 0, snapshot, firstPart, size - firstPart);
+        }
+
+        /**
+         * Checks if there are more items in the snapshot.
+         * @return true if there are more items, false otherwise.
+         */
+        public boolean hasNext() {
+            return currentIndex < snapshot.length;
+        }
+
+        /**
+         * Returns the next item in the snapshot.
+         * @return the next item.
+         * @throws NoSuchElementException if there are no more items to iterate.
+         */
+        public Item next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more items to iterate");
+            }
+            return snapshot[currentIndex++];
+        }
+
+        /**
+         * This operation is not supported: the snapshot is detached from the deque.
+         * @throws UnsupportedOperationException if called.
+         */
+        public void remove() {
+            throw new UnsupportedOperationException("Remove operation is not supported");
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the items from front to back.
+     * Creating it copies the items (two {@code System.arraycopy} calls, one per run of the ring), after
+     * which the deque can be changed freely: the iterator neither sees the changes nor fails.
+     * @return an iterator over a copy of the deque.
+     */
+    public Iterator<Item> snapshotIterator() {
+        return new SnapshotIterator();
+    }
+
     /**
      * Returns a string representation of the deque, showing the items from front to back.
      * @return a string representation of the deque.
@@ -234,6 +552,36 @@ public class Deque<Item> implements Iterable<Item> {
         return sb.toString().trim();
     }
 
+    /**
+     * Shrinks the underlying array to the smallest power of 2 that holds the current items,
+     * whatever the resize policy and the initial capacity.
+     * Useful with {@link ResizePolicy#NEVER_SHRINK} once a burst is over.
+     */
+    public void trimToSize() {
+        int newCapacity = powerOfTwoAtLeast(Math.max(size, 1));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of times the underlying array was replaced (grown, shrunk or trimmed).
+     * @return the resize count.
+     */
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total number of items copied by resizes. Each copied item is one reference,
+     * so the bytes copied are this times 4 with compressed oops (the default below 32 GB of heap),
+     * or times 8 without them.
+     * @return the copied item count.
+     */
+    public long copiedItemCount() {
+        return copiedItemCount;
+    }
+
     /**
      * Main method for testing the Deque implementation.
      * It demonstrates adding, removing, and iterating through the deque.
@@ -274,11 +622,19 @@ public class Deque<Item> implements Iterable<Item> {
         System.out.printf("Final deque contents: %s%n", deque); // [1, 2]
         System.out.printf("Final raw array contents: %s%n", deque.rawArrayToString()); // [f=1 b=2 null null]
         System.out.println();
+
+        // Bulk operations
+        deque.addAllFirst(new Integer[]{-2, -1, 0}, 0, 3);
+        deque.addAllLast(new Integer[]{3, 4, 5}, 0, 3);
+        System.out.printf("After addAllFirst and addAllLast: %s%n", deque); // [-2 -1 0 1 2 3 4 5]
+        int sum = StreamSupport.stream(deque.spliterator(), true).mapToInt(Integer::intValue).sum();
+        System.out.println("Sum with a parallel stream: " + sum); // 12
     }
 
     /**
      * Resizes the underlying array to a new capacity.
-     * It copies the items from the old array to the new array in a circular manner.
+     * It copies the items from the old array to the front of the new array, as the run before
+     * the wrap-around point and the run after it.
      * @param newCapacity the new capacity for the deque.
      */
     private void resize(int newCapacity) {
@@ -286,12 +642,68 @@ public class Deque<Item> implements Iterable<Item> {
             throw new IllegalArgumentException("New capacity must be greater than or equal to the current size");
         }
         Item[] newItems = (Item[]) new Object[newCapacity];
-        for (int i = 0; i < size; i++) {
-            newItems[i] = items[(front + i) % capacity];
-        }
+        int firstPart = Math.min(size, capacity - front);
+        System.arraycopy(items, front, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, size - firstPart);
         items = newItems;
         front = 0;
         back = size; // back is now the index after the last item
         capacity = newCapacity;
+        mask = newCapacity - 1;
+        shrinkThreshold = resizePolicy.shrinkThreshold(newCapacity);
+        resizeCount++;
+        copiedItemCount += size;
+        modCount++;
+    }
+
+    /**
+     * Shrinks the array to the smallest power of 2 that is at least twice the size (and at least the
+     * initial capacity), so that it is about half full.
+     */
+    private void shrink() {
+        int newCapacity = Math.max(minCapacity, powerOfTwoAtLeast(2 * size));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the smallest power of 2 that is greater than or equal to n.
+     * @param n a value between 1 and 2^30.
+     * @return the power of 2.
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Checks a batch of items to add, before anything is added.
+     * @return the number of items in the batch.
+     * @throws IllegalArgumentException if the range is invalid or contains a null item.
+     */
+    private static int checkBatch(Object[] source, int from, int to) {
+        if (from < 0 || from > to || to > source.length) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ")");
+        }
+        for (int i = from; i < to; i++) {
+            if (source[i] == null) {
+                throw new IllegalArgumentException("Item cannot be null");
+            }
+        }
+        return to - from;
+    }
+
+    /**
+     * Grows the array, in one step, to the smallest power of 2 that holds the given number of items.
+     * @param required the number of items the array must hold.
+     * @throws IllegalArgumentException if required is greater than 2^30.
+     */
+    private void ensureCapacity(int required) {
+        if (required < 0 || required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Deque cannot hold more than " + MAX_CAPACITY + " items");
+        }
+        if (required > capacity) {
+            resize(powerOfTwoAtLeast(required));
+        }
     }
 }
\ No newline at end of file
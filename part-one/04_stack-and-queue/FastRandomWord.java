@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import edu.princeton.cs.algs4.StdRandom;
+
+/**
+ * The {@code FastRandomWord} class does what RandomWord (in 01_hello-world) does, faster, and on
+ * several threads: it reads a sequence of words and prints one of them, chosen uniformly at random,
+ * or k of them with {@code --parallel}. It lives next to {@link TokenReader} so that RandomWord
+ * keeps compiling on its own against algs4.
+ * <p>
+ * Like RandomWord, it picks the word with Algorithm L (K.-H. Li, 1994): instead of a coin flip per
+ * word, it draws how many words pass before the next replacement, so the loop makes O(log n) random
+ * draws for n words, and between replacements it only counts words down.
+ * <p>
+ * With {@code --fast}, standard input is read by a {@link TokenReader}, which scans bytes instead of
+ * running a regular expression per word, and only decodes the words that become the champion.
+ * A file argument is read by a memory-mapped TokenReader.
+ * <p>
+ * With {@code --parallel}, it picks k words from a file on several threads: the file is split into
+ * byte ranges, each range gets its own reservoir of k words, and the reservoirs are merged into one
+ * uniform sample of the whole file (see {@link Reservoir#merge}).
+ * <p>
+ * Usage:
+ * <pre>
+ *   java FastRandomWord [--fast] &lt; words.txt
+ *   java FastRandomWord words.txt
+ *   java FastRandomWord --parallel words.txt [k] [threads]
+ * </pre>
+ * Any other combination of arguments (an unknown option, {@code --fast} with a file, {@code --parallel}
+ * without a file, or a second file) prints the usage instead of guessing.
+ * <p>
+ * Input: A sequence of words, one per line or separated by whitespace.
+ * Output: A single word, chosen uniformly at random from the input.
+ *
+ */
+public class FastRandomWord {
+
+    /**
+     * The smallest byte range worth a task of its own in parallel mode (main's choice).
+     */
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--parallel")) {
+            if (args.length < 2 || args.length > 4 || args[1].startsWith("--")) {
+                System.out.println("--parallel takes a file, then optionally k and the number of threads.");
+                printUsage();
+                return;
+            }
+            int k;
+            int threads;
+            try {
+                k = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+                threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            } catch (NumberFormatException e) {
+                System.out.println("k and the number of threads must be integers.");
+                printUsage();
+                return;
+            }
+            if (k < 0 || threads < 1) {
+                System.out.println("k cannot be negative, and the number of threads must be positive.");
+                return;
+            }
+            long seed = StdRandom.uniformLong(Long.MAX_VALUE);
+            for (String word : parallelSample(Paths.get(args[1]), k, 4 * threads, MIN_CHUNK_BYTES, threads, seed)) {
+                System.out.println(word);
+            }
+            return;
+        }
+
+        boolean fast = false;
+        String file = null;
+        for (String arg : args) {
+            if (arg.equals("--fast")) {
+                fast = true;
+            } else if (arg.equals("--parallel")) {
+                System.out.println("--parallel must be the first argument.");
+                printUsage();
+                return;
+            } else if (arg.startsWith("--")) {
+                System.out.println("Unknown option: " + arg);
+                printUsage();
+                return;
+            } else if (file != null) {
+                System.out.println("Only one input file can be read.");
+                printUsage();
+                return;
+            } else {
+                file = arg;
+            }
+        }
+        if (fast && file != null) {
+            System.out.println("--fast reads standard input, so it cannot be given a file as well.");
+            printUsage();
+            return;
+        }
+
+        if (file != null) {
+            try (TokenReader reader = new TokenReader(Paths.get(file))) {
+                System.out.println(champion(reader));
+            }
+        } else if (fast) {
+            System.out.println(champion(new TokenReader(System.in))); // System.in is left open
+        } else {
+            System.out.println(champion(Reservoir.stdInStrings()));
+        }
+    }
+
+    /**
+     * Prints how to run the program.
+     */
+    private static void printUsage() {
+        System.out.println("Usage: java FastRandomWord [--fast | file]");
+        System.out.println("       java FastRandomWord --parallel <file> [k] [threads]");
+    }
+
+    /**
+     * Picks a word uniformly at random, with Algorithm L for k = 1 (see {@link Reservoir#sample}).
+     * Words that do not become the champion are skipped, without being decoded if they come from a
+     * {@link TokenReader}.
+     * @param words the words.
+     * @return the chosen word, or an empty string if there are no words.
+     */
+    static String champion(Iterator<String> words) {
+        Reservoir reservoir = Reservoir.sample(words, 1, RandomSource.xoshiro(StdRandom.uniformLong(Long.MAX_VALUE)));
+        return reservoir.items.length == 0 ? "" : reservoir.items[0];
+    }
+
+    /**
+     * Picks k words uniformly at random (as a set) from a file, reading byte ranges of it in parallel.
+     * @param file the file of words.
+     * @param k the number of words to pick.
+     * @param chunks the number of byte ranges to split the file into, at most.
+     * @param minChunkBytes the smallest range size: smaller files are split into fewer ranges.
+     * @param threads the number of threads reading them.
+     * @param seed the seed of the random numbers.
+     * @return the words, in random order; fewer than k if the file has fewer words.
+     * @throws IOException if the file cannot be read.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     * @throws IllegalArgumentException if k is negative, or chunks, minChunkBytes or threads is less than 1.
+     */
+    static String[] parallelSample(Path file, int k, int chunks, long minChunkBytes, int threads, long seed)
+            throws IOException, InterruptedException {
+        if (k < 0 || chunks < 1 || minChunkBytes < 1 || threads < 1) {
+            throw new IllegalArgumentException("k must be non-negative, and chunks, minChunkBytes and threads positive");
+        }
+        long size = Files.size(file);
+        int chunkCount = countChunks(size, chunks, minChunkBytes);
+        SplittableRandom random = new SplittableRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Reservoir>> futures = new ArrayList<>();
+            for (int c = 0; c < chunkCount; c++) {
+                long start = size * c / chunkCount;
+                long end = size * (c + 1) / chunkCount;
+                RandomSource chunkRandom = RandomSource.xoshiro(random.nextLong());
+                futures.add(pool.submit(() -> {
+                    try (TokenReader reader = new TokenReader(file, start, end)) {
+                        return Reservoir.sample(reader, k, chunkRandom);
+                    }
+                }));
+            }
+            List<Reservoir> reservoirs = new ArrayList<>();
+            for (Future<Reservoir> future : futures) {
+                try {
+                    reservoirs.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+            return Reservoir.merge(reservoirs, k, RandomSource.xoshiro(random.nextLong())).items;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of byte ranges parallelSample splits a file into.
+     * @param size the file size in bytes.
+     * @param chunks the number of ranges asked for.
+     * @param minChunkBytes the smallest range size.
+     * @return min(chunks, size / minChunkBytes), and at least 1.
+     */
+    static int countChunks(long size, int chunks, long minChunkBytes) {
+        return (int) Math.max(1, Math.min(chunks, size / minChunkBytes));
+    }
+}
@@ -0,0 +1,282 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A double-ended queue of {@code long} values.
+ * <p>
+ * It has the same circular-buffer design as {@link Deque} (front/back indices over a resizing array),
+ * but stores the values in a {@code long[]}: no boxing, 8 bytes per element instead of a reference
+ * plus a {@code Long} object, and iteration reads contiguous memory instead of chasing pointers.
+ */
+public class LongDeque {
+
+    /**
+     * The largest power-of-2 capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * An array holding the values in the deque in a circular manner.
+     */
+    private long[] items;
+
+    /**
+     * The size of the deque, which is the number of values currently in it.
+     */
+    private int size;
+
+    /**
+     * The capacity of the deque, which is the size of the underlying array.
+     */
+    private int capacity;
+
+    /**
+     * The front index is the index of the first value in the deque.
+     */
+    private int front;
+
+    /**
+     * The back index is the index of the value after the last value.
+     * (Except when the deque is full, in which case it equals to front.)
+     */
+    private int back;
+
+    /**
+     * Equals capacity - 1. Since the capacity is a power of 2, {@code i & mask} wraps an index
+     * around the array like {@code i % capacity}, but without a division.
+     */
+    private int mask;
+
+    /**
+     * The capacity requested at construction (rounded up to a power of 2).
+     * The deque never shrinks below it, so a presized deque keeps its array when it is drained.
+     */
+    private final int minCapacity;
+
+    /*
+     * Initializes an empty deque with a default capacity of 1.
+     */
+    public LongDeque() {
+        this(1);
+    }
+
+    /**
+     * Initializes an empty deque that can hold {@code initialCapacity} values without resizing.
+     * Use it when the expected size is known, to skip the early resizes of the doubling cascade.
+     * @param initialCapacity the number of values to make room for, rounded up to a power of 2.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30.
+     */
+    public LongDeque(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = powerOfTwoAtLeast(initialCapacity);
+        this.mask = capacity - 1;
+        this.minCapacity = capacity;
+        this.items = new long[capacity];
+        this.size = 0;
+        this.front = 0;
+        this.back = 0;
+    }
+
+    /**
+     * Checks if the deque is empty.
+     * @return true if the deque is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values currently in the deque.
+     * @return the size of the deque.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the front of the deque.
+     * If the deque is full, it doubles its capacity.
+     * @param item the value to be added to the front.
+     */
+    public void addFirst(long item) {
+        if (size == capacity) {
+            resize(capacity * 2);
+        }
+        front = (front - 1) & mask; // Move front back
+        items[front] = item; // Add value at the current front index
+        size++;
+    }
+
+    /**
+     * Adds a value to the back of the deque.
+     * If the deque is full, it doubles its capacity.
+     * @param item the value to be added to the back.
+     */
+    public void addLast(long item) {
+        if (size == capacity) {
+            resize(capacity * 2);
+        }
+        items[back] = item; // Add value at the current back index
+        back = (back + 1) & mask; // Move back forward
+        size++;
+    }
+
+    /**
+     * Removes and returns the value from the front of the deque.
+     * If the size drops to a quarter of the capacity, it halves the capacity (but never below the initial capacity).
+     * @return the value removed from the front.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public long removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        long removingItem = items[front];
+        front = (front + 1) & mask; // Move front forward
+        size--;
+        if (size > 0 && size == capacity / 4 && capacity > minCapacity) {
+            resize(capacity / 2);
+        }
+        return removingItem;
+    }
+
+    /**
+     * Removes and returns the value from the back of the deque.
+     * If the size drops to a quarter of the capacity, it halves the capacity (but never below the initial capacity).
+     * @return the value removed from the back.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public long removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Deque is empty");
+        }
+        back = (back - 1) & mask; // Move back back
+        long removingItem = items[back];
+        size--;
+        if (size > 0 && size == capacity / 4 && capacity > minCapacity) {
+            resize(capacity / 2);
+        }
+        return removingItem;
+    }
+
+    /**
+     * An iterator over the values from front to back, without boxing.
+     */
+    private class LongDequeIterator implements PrimitiveIterator.OfLong {
+        /**
+         * The current index in the iteration, starting from the front.
+         */
+        private int currentIndex;
+        /**
+         * The index where the iteration ends, which is front + size.
+         */
+        private int endIndex;
+
+        public LongDequeIterator() {
+            this.currentIndex = front;
+            this.endIndex = front + size;
+        }
+
+        /**
+         * Checks if there are more values to iterate over.
+         * @return true if there are more values, false otherwise.
+         */
+        public boolean hasNext() {
+            return currentIndex != endIndex;
+        }
+
+        /**
+         * Returns the next value in the iteration.
+         * @return the next value.
+         * @throws NoSuchElementException if there are no more values to iterate.
+         */
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more items to iterate");
+            }
+            return items[currentIndex++ & mask];
+        }
+
+        /**
+         * Removes the current value from the iteration.
+         * This operation is not supported in this implementation.
+         * @throws UnsupportedOperationException if called.
+         */
+        public void remove() {
+            throw new UnsupportedOperationException("Remove operation is not supported");
+        }
+    }
+
+    /**
+     * Returns an iterator over the values in the deque from front to back.
+     * Use {@link PrimitiveIterator.OfLong#nextLong()} to avoid boxing.
+     * @return an iterator for the deque.
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new LongDequeIterator();
+    }
+
+    /**
+     * Returns a string representation of the deque, showing the values from front to back.
+     * @return a string representation of the deque.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(items[(front + i) & mask]).append(" ");
+        }
+        if (size > 0) {
+            sb.setLength(sb.length() - 1); // Remove the last space
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * Main method for testing the LongDeque implementation.
+     */
+    public static void main(String[] args) {
+        LongDeque deque = new LongDeque();
+        deque.addFirst(1);
+        deque.addLast(2);
+        deque.addFirst(0);
+        deque.addLast(3);
+        System.out.printf("Deque contents: %s%n", deque); // [0 1 2 3]
+        System.out.println("Removed from front: " + deque.removeFirst()); // 0
+        System.out.println("Removed from back: " + deque.removeLast());   // 3
+        System.out.printf("Final deque contents: %s%n", deque); // [1 2]
+    }
+
+    /**
+     * Resizes the underlying array to a new capacity.
+     * It copies the values from the old array to the new array in a circular manner.
+     * @param newCapacity the new capacity for the deque.
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity must be greater than or equal to the current size");
+        }
+        long[] newItems = new long[newCapacity];
+        for (int i = 0; i < size; i++) {
+            newItems[i] = items[(front + i) & mask];
+        }
+        items = newItems;
+        front = 0;
+        back = size; // back is now the index after the last value
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+    }
+
+    /**
+     * Returns the smallest power of 2 that is greater than or equal to n.
+     * @param n a value between 1 and 2^30.
+     * @return the power of 2.
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+}
@@ -1,26 +1,227 @@
-import edu.princeton.cs.algs4.StdIn;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
+/**
+ * Reads strings from standard input and prints k of them, chosen uniformly at random,
+ * each at most once.
+ * <p>
+ * By default it enqueues every string into a {@link RandomizedQueue} and dequeues k, so it needs
+ * memory for the whole input. With {@code --reservoir} it keeps only k strings while it reads:
+ * reservoir sampling with Algorithm L (K.-H. Li, "Reservoir-Sampling Algorithms of Time Complexity
+ * O(n(1 + log(N/n)))", 1994). Instead of a random draw per string, Algorithm L draws how many strings
+ * to skip before the next one that enters the reservoir, so it makes O(k (1 + log(n/k))) draws for n
+ * strings (see {@link Reservoir#sample}). The reservoir is then printed in random order through a
+ * k-sized RandomizedQueue.
+ * <p>
+ * With {@code --fast}, standard input is read by a {@link TokenReader} instead of StdIn, which scans
+ * bytes instead of running a regular expression per string, and skips the strings that the reservoir
+ * passes over without decoding them. A file argument is read by a memory-mapped TokenReader.
+ * <p>
+ * Samples of separate inputs (shards) can be combined. With {@code --shard}, it prints its reservoir in
+ * the shard format instead of the strings: a header line {@code reservoir <count> <size>} with the number
+ * of strings read and the number kept, then the kept strings, one per line. With {@code --merge}, it
+ * reads shard files one after another and keeps a running merge of them (see {@link Reservoir#merge}),
+ * so it needs memory for two reservoirs whatever the number of shards, and prints k strings of the union
+ * chosen uniformly at random; with {@code --shard} too, it prints the merged reservoir as a shard,
+ * so merges can be merged in turn.
+ * <p>
+ * Usage:
+ * <pre>
+ *   java Permutation k [--reservoir] [--fast] &lt; input.txt
+ *   java Permutation k [--reservoir] input.txt
+ *   java Permutation k --shard [--fast | input.txt] &gt; shard.txt
+ *   java Permutation k --merge [--shard] shard1.txt shard2.txt ...
+ * </pre>
+ * Other combinations ({@code --fast} with a file, {@code --reservoir} or {@code --fast} with
+ * {@code --merge}, an unknown option, a second file without {@code --merge}) print the usage.
+ */
 public class Permutation {
-    public static void main(String[] args) {
+    /**
+     * The first token of a shard file.
+     */
+    static final String SHARD_HEADER = "reservoir";
+
+    public static void main(String[] args) throws IOException {
         if (args.length < 1) {
-            System.out.println("Usage: java Permutation <k>");
+            printUsage();
             return;
         }
 
         int k = Integer.parseInt(args[0]);
-        RandomizedQueue<String> queue = new RandomizedQueue<>();
+        if (k < 0) {
+            System.out.println("k cannot be negative.");
+            return;
+        }
+        boolean reservoirMode = false;
+        boolean fast = false;
+        boolean shard = false;
+        boolean mergeMode = false;
+        List<String> files = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--reservoir")) {
+                reservoirMode = true;
+            } else if (args[i].equals("--fast")) {
+                fast = true;
+            } else if (args[i].equals("--shard")) {
+                shard = true;
+            } else if (args[i].equals("--merge")) {
+                mergeMode = true;
+            } else if (args[i].startsWith("--")) {
+                System.out.println("Unknown option: " + args[i]);
+                printUsage();
+                return;
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (!mergeMode && files.size() > 1) {
+            System.out.println("Only one input file can be read without --merge.");
+            printUsage();
+            return;
+        }
+        if (mergeMode && (reservoirMode || fast)) {
+            System.out.println("--merge reads shard files, so it cannot be combined with --reservoir or --fast.");
+            printUsage();
+            return;
+        }
+        if (fast && !files.isEmpty()) {
+            System.out.println("--fast reads standard input, so it cannot be given a file as well.");
+            printUsage();
+            return;
+        }
+
+        if (mergeMode) {
+            Reservoir merged = new Reservoir(0, new String[0]);
+            for (String file : files) {
+                try (TokenReader reader = new TokenReader(Paths.get(file))) {
+                    merged = Reservoir.merge(Arrays.asList(merged, readShard(reader, k)), k, RandomSource.stdRandom());
+                }
+            }
+            if (shard) {
+                writeShard(merged, System.out);
+            } else {
+                printRandomOrder(merged.items, k);
+            }
+            return;
+        }
+
+        if (!files.isEmpty()) {
+            try (TokenReader reader = new TokenReader(Paths.get(files.get(0)))) {
+                printSample(reader, k, reservoirMode, shard);
+            }
+        } else if (fast) {
+            printSample(new TokenReader(System.in), k, reservoirMode, shard); // System.in is left open
+        } else {
+            printSample(Reservoir.stdInStrings(), k, reservoirMode, shard);
+        }
+    }
+
+    /**
+     * Prints how to run the program.
+     */
+    private static void printUsage() {
+        System.out.println("Usage: java Permutation <k> [--reservoir] [--shard] [--fast | file]");
+        System.out.println("       java Permutation <k> --merge [--shard] <shard file>...");
+    }
 
-        while (!StdIn.isEmpty()) {
-            queue.enqueue(StdIn.readString());
+    /**
+     * Prints k tokens of the input chosen uniformly at random, or the reservoir as a shard.
+     * @param tokens the input.
+     * @param k the number of tokens to print.
+     * @param reservoirMode true to keep only a k-reservoir in memory instead of every token.
+     * @param shard true to print the reservoir in the shard format.
+     */
+    private static void printSample(Iterator<String> tokens, int k, boolean reservoirMode, boolean shard) {
+        if (shard) {
+            writeShard(Reservoir.sample(tokens, k, RandomSource.stdRandom()), System.out);
+        } else if (reservoirMode) {
+            printRandomOrder(Reservoir.sample(tokens, k, RandomSource.stdRandom()).items, k);
+        } else {
+            RandomizedQueue<String> queue = new RandomizedQueue<>();
+            while (tokens.hasNext()) {
+                queue.enqueue(tokens.next());
+            }
+            if (k > queue.size()) {
+                System.out.println("k cannot be greater than the number of items in the queue.");
+                return;
+            }
+            for (int i = 0; i < k; i++) {
+                System.out.println(queue.dequeue());
+            }
         }
+    }
 
-        if (k > queue.size()) {
+    /**
+     * Prints sampled strings in random order, through a RandomizedQueue of their size.
+     * @param items the strings.
+     * @param k the number of strings asked for; if there are fewer, it prints an error message instead.
+     */
+    private static void printRandomOrder(String[] items, int k) {
+        if (items.length < k) {
             System.out.println("k cannot be greater than the number of items in the queue.");
             return;
         }
-
+        RandomizedQueue<String> queue = new RandomizedQueue<>(Math.max(k, 1));
+        for (String item : items) {
+            queue.enqueue(item);
+        }
         for (int i = 0; i < k; i++) {
             System.out.println(queue.dequeue());
         }
     }
+
+    /**
+     * Writes a reservoir in the shard format: {@code reservoir <count> <size>}, then one string per line.
+     * The strings are tokens, so they have no whitespace in them.
+     * @param reservoir the reservoir.
+     * @param out where to write it.
+     */
+    static void writeShard(Reservoir reservoir, PrintStream out) {
+        out.println(SHARD_HEADER + " " + reservoir.count + " " + reservoir.items.length);
+        for (String item : reservoir.items) {
+            out.println(item);
+        }
+    }
+
+    /**
+     * Reads a reservoir written by {@link #writeShard}.
+     * @param reader the tokens of the shard.
+     * @param k the size of the sample it will be merged into.
+     * @return the reservoir.
+     * @throws IllegalArgumentException if the input is not a shard, or its reservoir is too small for a
+     *         k-sample (it was sampled with a smaller k).
+     */
+    static Reservoir readShard(TokenReader reader, int k) {
+        long count;
+        int size;
+        try {
+            if (!reader.hasNext() || !reader.next().equals(SHARD_HEADER)) {
+                throw new IllegalArgumentException("Not a shard: missing the reservoir header");
+            }
+            count = Long.parseLong(reader.next());
+            size = Integer.parseInt(reader.next());
+        } catch (NumberFormatException | NoSuchElementException e) {
+            throw new IllegalArgumentException("Not a shard: bad reservoir header", e);
+        }
+        if (size < 0 || size > count) {
+            throw new IllegalArgumentException("Not a shard: size " + size + " for count " + count);
+        }
+        if (size < Math.min(k, count)) {
+            throw new IllegalArgumentException("Shard keeps " + size + " of " + count + " strings, fewer than k = " + k);
+        }
+        String[] items = new String[size];
+        for (int i = 0; i < size; i++) {
+            if (!reader.hasNext()) {
+                throw new IllegalArgumentException("Not a shard: " + i + " strings instead of " + size);
+            }
+            items[i] = reader.next();
+        }
+        return new Reservoir(count, items);
+    }
 }
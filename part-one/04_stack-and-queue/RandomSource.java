@@ -0,0 +1,156 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import edu.princeton.cs.algs4.StdRandom;
+
+/**
+ * A source of uniform random indices for {@link RandomizedQueue}.
+ * <p>
+ * The default, {@link #stdRandom()}, goes through {@link StdRandom}, which shares one
+ * {@link java.util.Random} across the whole JVM: every call is a CAS on its seed, and threads with
+ * their own queues still contend on it. The other sources keep their state per queue (or per thread)
+ * and are much cheaper per call.
+ */
+public interface RandomSource {
+
+    /**
+     * Returns a uniformly random integer in [0, bound).
+     * @param bound the exclusive upper bound (positive).
+     * @return the random integer.
+     */
+    int nextInt(int bound);
+
+    /**
+     * Returns a uniformly random double in [0, 1), with 53 random bits like {@link java.util.Random#nextDouble()}.
+     * The default builds it from two calls to {@link #nextInt(int)}; sources with a native 64-bit
+     * output override it.
+     * @return the random double.
+     */
+    default double nextDouble() {
+        return (((long) nextInt(1 << 26) << 27) + nextInt(1 << 27)) * 0x1.0p-53;
+    }
+
+    /**
+     * The shared {@link StdRandom} generator. Its seed can be fixed with {@code StdRandom.setSeed}.
+     * @return the source.
+     */
+    static RandomSource stdRandom() {
+        return StdRandom::uniformInt;
+    }
+
+    /**
+     * The generator of the calling thread, {@link ThreadLocalRandom}: no shared state, no seed.
+     * @return the source.
+     */
+    static RandomSource threadLocal() {
+        return bound -> ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * A {@link SplittableRandom} with the given seed. Not thread-safe, like the queue that owns it.
+     * @param seed the seed, so that runs can be repeated.
+     * @return the source.
+     */
+    static RandomSource splittable(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return random::nextInt;
+    }
+
+    /**
+     * A xoshiro256** generator with the given seed. Not thread-safe, like the queue that owns it.
+     * Deterministic across JVMs and versions, so it is also the source to use in tests.
+     * @param seed the seed.
+     * @return the source.
+     */
+    static RandomSource xoshiro(long seed) {
+        return new Xoshiro256StarStar(seed);
+    }
+
+    /**
+     * The xoshiro256** generator of D. Blackman and S. Vigna (2018): 256 bits of state, a few shifts,
+     * rotations and xors per 64-bit output, and good statistical quality.
+     * <p>
+     * Bounded integers use D. Lemire's multiply-shift method ("Fast Random Integer Generation in an
+     * Interval", 2019), which replaces the usual division with a multiplication and only divides in
+     * the rare case where it has to reject a value to stay uniform.
+     */
+    final class Xoshiro256StarStar implements RandomSource {
+        private long s0;
+        private long s1;
+        private long s2;
+        private long s3;
+
+        /**
+         * Seeds the 256-bit state from a 64-bit seed with SplitMix64, as the authors recommend,
+         * so that nearby seeds give unrelated streams and the state is never all zero.
+         * @param seed the seed.
+         */
+        public Xoshiro256StarStar(long seed) {
+            long x = seed;
+            x += 0x9E3779B97F4A7C15L;
+            s0 = mix(x);
+            x += 0x9E3779B97F4A7C15L;
+            s1 = mix(x);
+            x += 0x9E3779B97F4A7C15L;
+            s2 = mix(x);
+            x += 0x9E3779B97F4A7C15L;
+            s3 = mix(x);
+        }
+
+        /**
+         * Returns the next 64 random bits.
+         * @return the random long.
+         */
+        public long nextLong() {
+            long result = Long.rotateLeft(s1 * 5, 7) * 9;
+            long t = s1 << 17;
+            s2 ^= s0;
+            s3 ^= s1;
+            s1 ^= s2;
+            s0 ^= s3;
+            s2 ^= t;
+            s3 = Long.rotateLeft(s3, 45);
+            return result;
+        }
+
+        /**
+         * Returns a uniformly random integer in [0, bound).
+         * @param bound the exclusive upper bound.
+         * @return the random integer.
+         * @throws IllegalArgumentException if bound is not positive.
+         */
+        @Override
+        public int nextInt(int bound) {
+            if (bound <= 0) {
+                throw new IllegalArgumentException("Bound must be positive");
+            }
+            long product = (nextLong() >>> 32) * bound; // A 32-bit random number times the bound
+            long low = product & 0xFFFFFFFFL;
+            if (low < bound) {
+                long threshold = (0x100000000L - bound) % bound;
+                while (low < threshold) {
+                    product = (nextLong() >>> 32) * bound;
+                    low = product & 0xFFFFFFFFL;
+                }
+            }
+            return (int) (product >>> 32);
+        }
+
+        /**
+         * Returns a uniformly random double in [0, 1), from the top 53 bits of the next long.
+         * @return the random double.
+         */
+        @Override
+        public double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+
+        /**
+         * The SplitMix64 output function.
+         */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
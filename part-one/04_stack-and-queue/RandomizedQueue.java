@@ -1,9 +1,13 @@
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import edu.princeton.cs.algs4.StdRandom;
 
 public class RandomizedQueue<Item> implements Iterable<Item> {
 
+    /**
+     * The largest power-of-2 capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
     /**
      * An array holding the items in the deque in a circular manner.
      */
@@ -31,12 +35,114 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
      */
     private int back;
 
+    /**
+     * Equals capacity - 1. Since the capacity is a power of 2, {@code i & mask} wraps an index
+     * around the array like {@code i % capacity}, but without a division.
+     */
+    private int mask;
+
+    /**
+     * The capacity requested at construction (rounded up to a power of 2).
+     * The queue never shrinks below it, so a presized queue keeps its array when it is drained.
+     */
+    private final int minCapacity;
+
+    /**
+     * Decides when the queue shrinks.
+     */
+    private final ResizePolicy resizePolicy;
+
+    /**
+     * Where the random indices come from.
+     */
+    private final RandomSource random;
+
+    /**
+     * The size at or below which the queue shrinks, from the resize policy for the current capacity.
+     */
+    private int shrinkThreshold;
+
+    /**
+     * The number of times the underlying array was replaced.
+     */
+    private int resizeCount;
+
+    /**
+     * The total number of items copied from an old array to a new one.
+     */
+    private long copiedItemCount;
+
+    /**
+     * True while iterators may be reading the current array. A dequeue then copies the array before
+     * changing it (copy on write), so every iterator keeps the items the queue had when it started.
+     */
+    private boolean itemsShared;
+
     /**
      * Creates an empty randomized queue.
      * Initializes the underlying array with a capacity of 1.
      */
     public RandomizedQueue() {
-        this.capacity = 1; // Initial capacity
+        this(1);
+    }
+
+    /**
+     * Creates an empty randomized queue that can hold {@code initialCapacity} items without resizing.
+     * Use it when the expected size is known, to skip the early resizes of the doubling cascade.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30.
+     */
+    public RandomizedQueue(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Initializes an empty randomized queue with an initial capacity and a policy for when to shrink.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     *        The queue never shrinks below it.
+     * @param resizePolicy when to shrink, e.g. {@link ResizePolicy#NEVER_SHRINK}.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30,
+     *         or if resizePolicy is null.
+     */
+    public RandomizedQueue(int initialCapacity, ResizePolicy resizePolicy) {
+        this(initialCapacity, resizePolicy, RandomSource.stdRandom());
+    }
+
+    /**
+     * Creates an empty randomized queue that draws its random indices from the given source,
+     * e.g. {@code RandomSource.xoshiro(seed)} for a fast, repeatable queue.
+     * @param random the source of random indices.
+     * @throws IllegalArgumentException if random is null.
+     */
+    public RandomizedQueue(RandomSource random) {
+        this(1, ResizePolicy.DEFAULT, random);
+    }
+
+    /**
+     * Creates an empty randomized queue with an initial capacity, a shrink policy and a random source.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     *        The queue never shrinks below it.
+     * @param resizePolicy when to shrink, e.g. {@link ResizePolicy#NEVER_SHRINK}.
+     * @param random the source of random indices (by default {@link RandomSource#stdRandom()}).
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30,
+     *         or if resizePolicy or random is null.
+     */
+    public RandomizedQueue(int initialCapacity, ResizePolicy resizePolicy, RandomSource random) {
+        if (resizePolicy == null) {
+            throw new IllegalArgumentException("Resize policy cannot be null");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null");
+        }
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = powerOfTwoAtLeast(initialCapacity);
+        this.mask = capacity - 1;
+        this.minCapacity = capacity;
+        this.resizePolicy = resizePolicy;
+        this.random = random;
+        this.shrinkThreshold = resizePolicy.shrinkThreshold(capacity);
         this.items = (Item[]) new Object[capacity]; // Create an array of items
         this.size = 0;
         this.front = 0;
@@ -72,8 +178,9 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (size == capacity) {
             resize(capacity * 2);
         }
+        // The slot is past the items that iterators read, so a shared array can be written in place
         items[back] = item; // Add item at the current back index (except when the deque is empty)
-        back = (back + 1) % capacity; // Move back forward
+        back = (back + 1) & mask; // Move back forward
         size++;
     }
 
@@ -87,15 +194,16 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (isEmpty()) {
             throw new NoSuchElementException("Queue is empty");
         }
-        int randomIndex = StdRandom.uniformInt(size);
+        unshareItems();
+        int randomIndex = random.nextInt(size);
         Item removingItem = items[randomIndex];
-        int lastItemIndex = (back - 1 + capacity) % capacity;
+        int lastItemIndex = (back - 1) & mask;
         items[randomIndex] = items[lastItemIndex]; // Replace the removed item with the last item
         items[lastItemIndex] = null; // Clear the last item
         back = lastItemIndex; // Move back backward
         size--;
-        if (size > 0 && size == capacity / 4) {
-            resize(capacity / 2);
+        if (size > 0 && size <= shrinkThreshold && capacity > minCapacity) {
+            shrink();
         }
         return removingItem;
     }
@@ -109,43 +217,131 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         if (isEmpty()) {
             throw new NoSuchElementException("Queue is empty");
         }
-        int randomIndex = StdRandom.uniformInt(size);
+        int randomIndex = random.nextInt(size);
         return items[randomIndex];
     }
 
+    /**
+     * Removes k random items and writes them into {@code destination[0..k)}.
+     * It does k swap-with-last removals, then checks the shrink policy once, so the whole batch
+     * causes at most one resize (instead of up to one per item with k calls to dequeue()).
+     * @param destination the array to write the removed items into.
+     * @param k the number of items to remove.
+     * @throws IllegalArgumentException if k is negative or greater than the destination length.
+     * @throws NoSuchElementException if the queue has fewer than k items.
+     */
+    public void dequeue(Item[] destination, int k) {
+        checkBatchSize(destination, k);
+        unshareItems();
+        int remaining = size;
+        for (int i = 0; i < k; i++) {
+            // The items are at indices 0..remaining-1 (front stays 0 in a randomized queue)
+            int randomIndex = random.nextInt(remaining);
+            int lastItemIndex = remaining - 1;
+            destination[i] = items[randomIndex];
+            items[randomIndex] = items[lastItemIndex]; // Replace the removed item with the last item
+            items[lastItemIndex] = null; // Clear the last item
+            remaining--;
+        }
+        back = remaining & mask;
+        size = remaining;
+        if (size > 0 && size <= shrinkThreshold && capacity > minCapacity) {
+            shrink();
+        }
+    }
+
+    /**
+     * Writes k distinct random items into {@code destination[0..k)} (sampling without replacement),
+     * in random order, without removing them.
+     * It runs the first k steps of a Fisher-Yates shuffle, the same lazy shuffle as the iterator:
+     * it makes k random draws and reads k items, whatever the size n. The shuffle needs O(k) extra
+     * memory for k &lt; n/64, and one int array of n entries otherwise.
+     * @param destination the array to write the sampled items into.
+     * @param k the number of items to sample.
+     * @throws IllegalArgumentException if k is negative or greater than the destination length.
+     * @throws NoSuchElementException if the queue has fewer than k items.
+     */
+    public void sample(Item[] destination, int k) {
+        checkBatchSize(destination, k);
+        Iterator<Item> shuffle = new RandomizedQueueIterator();
+        for (int i = 0; i < k; i++) {
+            destination[i] = shuffle.next();
+        }
+    }
+
+    /**
+     * Checks the arguments of the batch operations.
+     */
+    private void checkBatchSize(Item[] destination, int k) {
+        if (k < 0 || k > destination.length) {
+            throw new IllegalArgumentException("k must be between 0 and the destination length");
+        }
+        if (k > size) {
+            throw new NoSuchElementException("Queue has only " + size + " items");
+        }
+    }
+
     /**
      * An iterator for the randomized queue.
-     * It iterates over all items in the queue in random order.
+     * It iterates over the items the queue had when it started, in random order, shuffling lazily:
+     * each call to next() does one step of a Fisher-Yates shuffle over the positions 0..n-1 of the queue,
+     * so the constructor does no work and taking the first k items costs O(k) random draws.
+     * <p>
+     * The items are read from the queue's array, which the queue copies before it changes any of them
+     * (see {@link #itemsShared}); the iterator does not copy them. The shuffle only records which
+     * positions it has moved, with ints and no boxed objects:
+     * <ul>
+     *   <li>While fewer than n/64 items have been returned, in a small open-addressing hash table
+     *       whose size follows the number of moves, so taking the first k items allocates O(k).</li>
+     *   <li>Then in an int array of n entries, where 0 means "not moved", so a full iteration costs
+     *       O(n) with a small constant.</li>
+     * </ul>
      */
     private class RandomizedQueueIterator implements Iterator<Item> {
         /**
-         * An array to hold the items in random order.
-         * It is initialized with a shuffled copy of the items in the queue.
+         * The array of the queue when the iteration started. Its first n items are never changed after.
+         */
+        private final Item[] snapshot;
+
+        /**
+         * The number of items to iterate over (the size of the queue when the iteration started).
          */
-        private Item[] shuffledItems;
+        private final int n;
 
         /**
-         * The current index in the shuffled items array.
-         * It starts at 0 and increments as items are iterated over.
+         * The number of items returned so far. Positions below it are done.
          */
         private int currentIndex;
 
         /**
-         * Constructor for the RandomizedQueueIterator.
-         * It creates a shuffled copy of the items in the queue.
+         * Dense phase: moved[p] is 1 + the array index of the item now at position p, or 0 if that item
+         * has not moved (it is still at index p). Null while in the sparse phase.
+         */
+        private int[] moved;
+
+        /**
+         * Sparse phase: the hash table keys, each 1 + a moved position (0 for an empty slot).
+         * Its length is a power of 2, at least twice the number of keys. Null before the first move
+         * and in the dense phase.
+         */
+        private int[] movedKeys;
+
+        /**
+         * Sparse phase: the hash table values, each 1 + the array index of the item at the key's position.
+         */
+        private int[] movedValues;
+
+        /**
+         * Sparse phase: the number of keys in the hash table.
+         */
+        private int movedCount;
+
+        /**
+         * Constructor for the RandomizedQueueIterator. It takes constant time: nothing is copied.
          */
         public RandomizedQueueIterator() {
-            shuffledItems = (Item[]) new Object[size];
-            for (int i = 0; i < size; i++) {
-                shuffledItems[i] = items[(front + i) % capacity];
-            }
-            // Shuffle the array
-            for (int i = size - 1; i > 0; i--) {
-                int randomIndex = StdRandom.uniformInt(i + 1);
-                Item temp = shuffledItems[i];
-                shuffledItems[i] = shuffledItems[randomIndex];
-                shuffledItems[randomIndex] = temp;
-            }
+            snapshot = items;
+            n = size;
             currentIndex = 0;
         }
 
@@ -154,7 +350,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
          * @return true if there are more items, false otherwise.
          */
         public boolean hasNext() {
-            return currentIndex < shuffledItems.length;
+            return currentIndex < n;
         }
 
         /**
@@ -166,7 +362,100 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
             if (!hasNext()) {
                 throw new NoSuchElementException("No more items to iterate");
             }
-            return shuffledItems[currentIndex++];
+            if (moved == null && currentIndex >= n >>> 6) {
+                densify();
+            }
+            // Swap a random position in [currentIndex, n) into currentIndex and return its item
+            int randomIndex = currentIndex + random.nextInt(n - currentIndex);
+            int index = indexAt(randomIndex);
+            if (randomIndex != currentIndex) {
+                setIndexAt(randomIndex, indexAt(currentIndex));
+            }
+            currentIndex++;
+            return snapshot[index]; // front is always 0 in a randomized queue
+        }
+
+        /**
+         * Returns the array index of the item at a shuffle position.
+         */
+        private int indexAt(int position) {
+            int stored;
+            if (moved != null) {
+                stored = moved[position];
+            } else {
+                stored = movedKeys == null ? 0 : movedValues[slotOf(position)];
+            }
+            return stored == 0 ? position : stored - 1;
+        }
+
+        /**
+         * Records that the item at an array index is now at a shuffle position.
+         */
+        private void setIndexAt(int position, int index) {
+            if (moved != null) {
+                moved[position] = index + 1;
+                return;
+            }
+            if (movedKeys == null) {
+                movedKeys = new int[16];
+                movedValues = new int[16];
+            }
+            int slot = slotOf(position);
+            if (movedKeys[slot] == 0) {
+                movedKeys[slot] = position + 1;
+                movedCount++;
+            }
+            movedValues[slot] = index + 1;
+            if (2 * movedCount > movedKeys.length) {
+                growTable();
+            }
+        }
+
+        /**
+         * Returns the hash table slot of a position: the slot holding it, or the empty slot where it
+         * would go (linear probing from a multiplicative hash).
+         */
+        private int slotOf(int position) {
+            int tableMask = movedKeys.length - 1;
+            int hash = position * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & tableMask;
+            while (movedKeys[slot] != 0 && movedKeys[slot] != position + 1) {
+                slot = (slot + 1) & tableMask;
+            }
+            return slot;
+        }
+
+        /**
+         * Doubles the hash table and reinserts its entries.
+         */
+        private void growTable() {
+            int[] oldKeys = movedKeys;
+            int[] oldValues = movedValues;
+            movedKeys = new int[2 * oldKeys.length];
+            movedValues = new int[2 * oldKeys.length];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slotOf(oldKeys[i] - 1);
+                    movedKeys[slot] = oldKeys[i];
+                    movedValues[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /**
+         * Switches to the dense phase: moves the hash table entries into an array of n entries.
+         */
+        private void densify() {
+            moved = new int[n];
+            if (movedKeys != null) {
+                for (int i = 0; i < movedKeys.length; i++) {
+                    if (movedKeys[i] != 0) {
+                        moved[movedKeys[i] - 1] = movedValues[i];
+                    }
+                }
+            }
+            movedKeys = null;
+            movedValues = null;
         }
 
         /**
@@ -181,9 +470,12 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
     /**
      * Returns an independent iterator over the items in random order.
+     * The queue can be changed during the iteration: the iterator still returns the items the queue
+     * had when it was created, each once.
      * @return an iterator for the randomized queue.
      */
     public Iterator<Item> iterator() {
+        itemsShared = true;
         return new RandomizedQueueIterator();
     }
 
@@ -195,7 +487,10 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("[");
-        for (Item item : this) {
+        // Not through iterator(): this iteration ends here, so the array need not be copied on the next dequeue
+        Iterator<Item> shuffle = new RandomizedQueueIterator();
+        while (shuffle.hasNext()) {
+            Item item = shuffle.next();
             sb.append(item == null ? "null" : item).append(" ");
         }
         if (size > 0) {
@@ -205,6 +500,36 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return sb.toString().trim();
     }
 
+    /**
+     * Shrinks the underlying array to the smallest power of 2 that holds the current items,
+     * whatever the resize policy and the initial capacity.
+     * Useful with {@link ResizePolicy#NEVER_SHRINK} once a burst is over.
+     */
+    public void trimToSize() {
+        int newCapacity = powerOfTwoAtLeast(Math.max(size, 1));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of times the underlying array was replaced (grown, shrunk or trimmed).
+     * @return the resize count.
+     */
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the total number of items copied by resizes. Each copied item is one reference,
+     * so the bytes copied are this times 4 with compressed oops (the default below 32 GB of heap),
+     * or times 8 without them.
+     * @return the copied item count.
+     */
+    public long copiedItemCount() {
+        return copiedItemCount;
+    }
+
     /**
      * Main method for testing the RandomizedQueue class.
      * It demonstrates the functionality of the queue with various operations.
@@ -252,11 +577,47 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
         Item[] newItems = (Item[]) new Object[newCapacity];
         for (int i = 0; i < size; i++) {
-            newItems[i] = items[(front + i) % capacity];
+            newItems[i] = items[(front + i) & mask];
         }
         items = newItems;
         front = 0;
         back = size; // back is now the index after the last item
         capacity = newCapacity;
+        mask = newCapacity - 1;
+        shrinkThreshold = resizePolicy.shrinkThreshold(newCapacity);
+        resizeCount++;
+        copiedItemCount += size;
+        itemsShared = false;
+    }
+
+    /**
+     * Copies the array if iterators may be reading it, before a dequeue changes it in place.
+     * The copy keeps the capacity, so the indices do not change.
+     */
+    private void unshareItems() {
+        if (itemsShared) {
+            items = items.clone();
+            itemsShared = false;
+        }
+    }
+
+    /**
+     * Shrinks the array to the smallest power of 2 that is at least twice the size (and at least the
+     * initial capacity), so that it is about half full.
+     */
+    private void shrink() {
+        int newCapacity = Math.max(minCapacity, powerOfTwoAtLeast(2 * size));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the smallest power of 2 that is greater than or equal to n.
+     * @param n a value between 1 and 2^30.
+     * @return the power of 2.
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
     }
 }
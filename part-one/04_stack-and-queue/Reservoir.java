@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import edu.princeton.cs.algs4.StdIn;
+
+/**
+ * A uniform sample of up to k strings from an input, with the number of strings it was taken from,
+ * and the sampling code that Permutation and FastRandomWord share.
+ * <p>
+ * {@link #sample} fills a reservoir from a stream with Algorithm L (K.-H. Li, "Reservoir-Sampling
+ * Algorithms of Time Complexity O(n(1 + log(N/n)))", 1994): instead of a random draw per string, it draws
+ * how many strings to skip before the next one that enters the reservoir, so it makes
+ * O(k (1 + log(n/k))) draws for n strings, and skips through a {@link TokenReader} without decoding.
+ * {@link #merge} combines the reservoirs of disjoint inputs (shards, or byte ranges of one file) into a
+ * uniform sample of their union.
+ */
+public final class Reservoir {
+    /**
+     * The number of strings in the input.
+     */
+    final long count;
+
+    /**
+     * A uniform sample of the strings (min(k, count) of them for a k-sample), in no particular order.
+     */
+    final String[] items;
+
+    Reservoir(long count, String[] items) {
+        this.count = count;
+        this.items = items;
+    }
+
+    /**
+     * Picks k strings uniformly at random (as a set) from a stream of unknown length,
+     * keeping only k of them in memory.
+     * <p>
+     * Algorithm L: after the first k strings, the largest of k uniform random keys has the distribution
+     * of W = U^(1/k). The number of strings that do not enter the reservoir before the next one does is
+     * geometric with parameter W, so it is drawn in one step as floor(log(U) / log(1 - W)); the string
+     * after them replaces a random slot, and W shrinks by another factor U^(1/k).
+     * @param strings the stream of strings.
+     * @param k the number of strings to pick.
+     * @param random the source of random numbers.
+     * @return the picked strings, in no particular order (fewer than k if the stream is shorter than k),
+     *         and the number of strings in the stream.
+     */
+    static Reservoir sample(Iterator<String> strings, int k, RandomSource random) {
+        String[] items = new String[k];
+        int filled = 0;
+        while (filled < k && strings.hasNext()) {
+            items[filled++] = strings.next();
+        }
+        if (filled < k) {
+            return new Reservoir(filled, Arrays.copyOf(items, filled));
+        }
+        long count = k;
+        if (k == 0) {
+            return new Reservoir(count + skip(strings, Long.MAX_VALUE), items);
+        }
+        double w = Math.exp(Math.log(uniformPositive(random)) / k);
+        while (true) {
+            long toSkip = (long) Math.floor(Math.log(uniformPositive(random)) / Math.log1p(-w));
+            long skipped = skip(strings, toSkip);
+            count += skipped;
+            if (skipped < toSkip || !strings.hasNext()) {
+                return new Reservoir(count, items);
+            }
+            items[random.nextInt(k)] = strings.next();
+            count++;
+            w *= Math.exp(Math.log(uniformPositive(random)) / k);
+        }
+    }
+
+    /**
+     * Merges the reservoirs of disjoint inputs into a uniform sample of k strings of their union.
+     * <p>
+     * Each of the min(k, total count) draws picks an input with probability proportional to the number of
+     * its strings not drawn yet, then takes a random string out of that input's reservoir. So the number
+     * of strings taken from each input follows the (multivariate hypergeometric) distribution it has in a
+     * uniform k-sample of the union, and within an input they are a uniform subset of a uniform sample,
+     * hence uniform too. An input never gives more than min(k, count) strings, which its reservoir holds.
+     * Merging shards one at a time into the result of the previous merges is therefore uniform over all
+     * of them. The reservoirs' arrays are used up in the process.
+     * @param reservoirs the reservoirs, each holding at least min(k, count) strings.
+     * @param k the number of strings to pick.
+     * @param random the source of random numbers.
+     * @return the merged reservoir, whose count is the sum of the counts.
+     * @throws IllegalArgumentException if a reservoir holds too few strings for a k-sample.
+     */
+    static Reservoir merge(List<Reservoir> reservoirs, int k, RandomSource random) {
+        int parts = reservoirs.size();
+        long[] remaining = new long[parts];
+        int[] left = new int[parts];
+        long total = 0;
+        for (int i = 0; i < parts; i++) {
+            Reservoir reservoir = reservoirs.get(i);
+            if (reservoir.items.length < Math.min(k, reservoir.count)) {
+                throw new IllegalArgumentException("A reservoir holds fewer strings than k and its count");
+            }
+            remaining[i] = reservoir.count;
+            left[i] = reservoir.items.length;
+            total += remaining[i];
+        }
+        long count = total;
+        String[] merged = new String[(int) Math.min(k, total)];
+        for (int s = 0; s < merged.length; s++) {
+            // 53 random bits are plenty to weigh the inputs; the min guards against rounding up to total
+            long target = Math.min(total - 1, (long) (random.nextDouble() * total));
+            int part = 0;
+            while (target >= remaining[part]) {
+                target -= remaining[part];
+                part++;
+            }
+            String[] items = reservoirs.get(part).items;
+            int slot = random.nextInt(left[part]);
+            merged[s] = items[slot];
+            items[slot] = items[--left[part]]; // Swap-remove, like RandomizedQueue.dequeue
+            remaining[part]--;
+            total--;
+        }
+        return new Reservoir(count, merged);
+    }
+
+    /**
+     * Skips up to n strings: without decoding them if the strings come from a {@link TokenReader},
+     * or by reading and dropping them.
+     * @param strings the stream of strings.
+     * @param n the number of strings to skip.
+     * @return the number of strings skipped, less than n only at the end of the stream.
+     */
+    static long skip(Iterator<String> strings, long n) {
+        if (strings instanceof TokenReader) {
+            return ((TokenReader) strings).skip(n);
+        }
+        long skipped = 0;
+        while (skipped < n && strings.hasNext()) {
+            strings.next();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Returns the strings of standard input as an iterator.
+     * @return the iterator, reading StdIn as it goes.
+     */
+    static Iterator<String> stdInStrings() {
+        return new Iterator<String>() {
+            public boolean hasNext() {
+                return !StdIn.isEmpty();
+            }
+
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more input");
+                }
+                return StdIn.readString();
+            }
+        };
+    }
+
+    /**
+     * Returns a uniform random double in (0, 1], so that its logarithm is finite.
+     * @param random the source of random numbers.
+     * @return the random double.
+     */
+    private static double uniformPositive(RandomSource random) {
+        return 1.0 - random.nextDouble();
+    }
+}
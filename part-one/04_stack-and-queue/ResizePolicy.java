@@ -0,0 +1,46 @@
+/**
+ * Decides when a resizing-array structure ({@link Deque}, {@link RandomizedQueue}) gives memory back.
+ * <p>
+ * Growth is fixed: the array doubles when it is full (the capacity must stay a power of 2).
+ * Shrinking is where workloads differ. A queue whose size swings back and forth across the shrink
+ * point copies its items on every swing; a larger gap between the grow and shrink points
+ * (hysteresis) or no shrinking at all trades memory for fewer copies.
+ * <p>
+ * The policy is only asked when the capacity changes, so it costs nothing per operation.
+ */
+public interface ResizePolicy {
+
+    /**
+     * Halve the capacity once the size drops to a quarter of it (the classic resizing-array rule).
+     */
+    ResizePolicy DEFAULT = hysteresis(4);
+
+    /**
+     * Never shrink. The array stays at its peak size until {@code trimToSize()} is called.
+     */
+    ResizePolicy NEVER_SHRINK = capacity -> -1;
+
+    /**
+     * Returns the size at or below which the structure shrinks, for a given capacity.
+     * When it shrinks, the new capacity is the smallest power of 2 that is at least twice the size,
+     * so the array is about half full afterwards.
+     * @param capacity the current capacity (a power of 2).
+     * @return the shrink threshold, or a negative number to never shrink at this capacity.
+     */
+    int shrinkThreshold(int capacity);
+
+    /**
+     * Shrink once the size drops to {@code 1/divisor} of the capacity.
+     * With a divisor of 8, a structure has to lose 7/8 of a full array before it copies anything,
+     * and after shrinking it is a quarter full, so it has to double again before it grows.
+     * @param divisor the fraction of the capacity to shrink at (at least 4).
+     * @return the policy.
+     * @throws IllegalArgumentException if divisor is less than 4.
+     */
+    static ResizePolicy hysteresis(int divisor) {
+        if (divisor < 4) {
+            throw new IllegalArgumentException("Divisor must be at least 4, or every shrink is followed by a grow");
+        }
+        return capacity -> capacity / divisor;
+    }
+}
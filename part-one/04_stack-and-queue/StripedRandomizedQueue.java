@@ -0,0 +1,277 @@
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe randomized queue, split into independently locked stripes.
+ * <p>
+ * Each stripe is a {@link RandomizedQueue} with its own lock and its own random source. Threads
+ * enqueue into whichever stripe they can lock first, starting from a random one, so producers rarely
+ * wait for each other. A dequeue picks a stripe with probability proportional to its size, then a
+ * uniformly random item in it, so a thread takes ("steals") from any stripe, not just the one it filled.
+ * <p>
+ * Randomness bound: if the stripe sizes are s_1..s_S with total n when a dequeue reads them, item x in
+ * stripe i is chosen with probability (s_i / n) * (1 / s_i) = 1 / n, exactly as in
+ * {@link RandomizedQueue}. The only error comes from other threads changing stripe i between the size
+ * read and the lock: if it then holds s_i + d items (d can be negative), each of its items is chosen
+ * with probability 1 / n * s_i / (s_i + d). With T threads, |d| is at most T - 1, so in a queue of n items
+ * over S stripes the relative error is about T * S / n, which is negligible for a pool that is not
+ * nearly empty. A queue that no other thread is using is exactly uniform.
+ * <p>
+ * The queue is not iterable: there is no consistent view of all stripes without stopping every thread.
+ */
+public class StripedRandomizedQueue<Item> {
+
+    /**
+     * A sub-queue with its lock. The size is mirrored in a volatile field so that dequeue can read all
+     * stripe sizes without locking.
+     */
+    private static final class Stripe<Item> {
+        /**
+         * The lock guarding the queue.
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * The items of the stripe, with a random source of its own (only used under the lock).
+         */
+        private final RandomizedQueue<Item> queue;
+
+        /**
+         * The size of the queue, written under the lock and read without it.
+         */
+        private volatile int size;
+
+        Stripe(long seed) {
+            this.queue = new RandomizedQueue<>(16, ResizePolicy.hysteresis(8), RandomSource.xoshiro(seed));
+        }
+    }
+
+    /**
+     * The stripes.
+     */
+    private final Stripe<Item>[] stripes;
+
+    /**
+     * Initializes an empty queue with 4 stripes per available processor.
+     */
+    public StripedRandomizedQueue() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes an empty queue with the given number of stripes.
+     * More stripes mean fewer threads waiting on the same lock, but a longer scan of the stripe
+     * sizes on each dequeue (one volatile read per stripe).
+     * @param stripeCount the number of stripes.
+     * @throws IllegalArgumentException if stripeCount is less than 1.
+     */
+    public StripedRandomizedQueue(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be at least 1");
+        }
+        stripes = (Stripe<Item>[]) new Stripe<?>[stripeCount];
+        ThreadLocalRandom seeds = ThreadLocalRandom.current();
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>(seeds.nextLong());
+        }
+    }
+
+    /**
+     * Checks if the queue is empty. With other threads running, the answer may be stale.
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of items in the queue. With other threads running, it is an estimate.
+     * There is no shared counter, which every thread would have to update: it adds up the stripe sizes.
+     * @return the size of the queue.
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe<Item> stripe : stripes) {
+            total += stripe.size;
+        }
+        return total;
+    }
+
+    /**
+     * Adds an item to the queue.
+     * It tries the stripes in turn from a random one and takes the first lock that is free;
+     * if all are busy, it waits for the random one.
+     * @param item the item to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    public void enqueue(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        int start = ThreadLocalRandom.current().nextInt(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe<Item> stripe = stripes[(start + i) % stripes.length];
+            if (stripe.lock.tryLock()) {
+                enqueueLocked(stripe, item);
+                return;
+            }
+        }
+        Stripe<Item> stripe = stripes[start];
+        stripe.lock.lock();
+        enqueueLocked(stripe, item);
+    }
+
+    /**
+     * Removes and returns a random item from the queue.
+     * @return the removed item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public Item dequeue() {
+        Item item = poll();
+        if (item == null) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns a random item from the queue, or returns null if it is empty.
+     * @return the removed item, or null.
+     */
+    public Item poll() {
+        return take(true);
+    }
+
+    /**
+     * Returns a random item from the queue without removing it.
+     * @return a random item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public Item sample() {
+        Item item = take(false);
+        if (item == null) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return item;
+    }
+
+    /**
+     * Picks a stripe with probability proportional to its size, then a random item in it.
+     * If the stripe was emptied in the meantime, it starts over.
+     * @param remove whether to remove the item (dequeue) or not (sample).
+     * @return the item, or null if every stripe was empty when read.
+     */
+    private Item take(boolean remove) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int total = size();
+            if (total == 0) {
+                return null;
+            }
+            int target = random.nextInt(total);
+            Stripe<Item> chosen = null;
+            for (Stripe<Item> stripe : stripes) {
+                target -= stripe.size;
+                if (target < 0) {
+                    chosen = stripe;
+                    break;
+                }
+            }
+            if (chosen == null) {
+                continue; // Sizes changed during the scan
+            }
+            chosen.lock.lock();
+            try {
+                if (chosen.queue.isEmpty()) {
+                    continue; // Emptied by another thread after the scan
+                }
+                if (!remove) {
+                    return chosen.queue.sample();
+                }
+                Item item = chosen.queue.dequeue();
+                chosen.size = chosen.queue.size();
+                return item;
+            } finally {
+                chosen.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds the item to a stripe whose lock is held, and releases the lock.
+     * @param stripe the locked stripe.
+     * @param item the item to be added.
+     */
+    private void enqueueLocked(Stripe<Item> stripe, Item item) {
+        try {
+            stripe.queue.enqueue(item);
+            stripe.size = stripe.queue.size();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Main method for testing the StripedRandomizedQueue implementation.
+     * Several threads take an item from a shared pool and put it back, then it prints the throughput
+     * and how often each item was taken (which should be about the same for all).
+     * @param args optional: the number of threads (default 4) and of operations per thread (default 1000000).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threadCount = 4;
+        int operations = 1000000;
+        try {
+            if (args.length > 0) {
+                threadCount = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                operations = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid arguments. Using defaults: 4 threads, 1000000 operations.");
+            threadCount = 4;
+            operations = 1000000;
+        }
+
+        final int poolSize = 16;
+        StripedRandomizedQueue<Integer> pool = new StripedRandomizedQueue<>();
+        for (int i = 0; i < poolSize; i++) {
+            pool.enqueue(i);
+        }
+        AtomicInteger[] taken = new AtomicInteger[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            taken[i] = new AtomicInteger();
+        }
+
+        final int perThread = operations;
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    Integer worker = pool.poll();
+                    if (worker != null) {
+                        taken[worker].incrementAndGet();
+                        pool.enqueue(worker);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d threads x %d take/put pairs in %.1f ms%n", threadCount, operations, elapsed / 1e6);
+        StringBuilder sb = new StringBuilder();
+        for (AtomicInteger count : taken) {
+            sb.append(count.get()).append(" ");
+        }
+        System.out.println("Times each item was taken: " + sb.toString().trim());
+    }
+}
@@ -0,0 +1,362 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Reads whitespace-separated tokens from a stream or a file, working on raw bytes.
+ * <p>
+ * {@code StdIn.readString()} goes through {@link java.util.Scanner}, which matches a regular expression
+ * over decoded characters for every token. This reader scans bytes for the ASCII whitespace characters
+ * instead, and only builds a String when a token is asked for with {@link #next()}:
+ * {@link #skip(long)} passes over tokens without copying or allocating anything, so a sampler that
+ * keeps few of the tokens it reads (reservoir sampling) costs little more than the scan itself.
+ * <p>
+ * Streams are read in large chunks into one reused buffer. Files are memory-mapped in windows of
+ * {@link #WINDOW_BYTES} bytes, one at a time, so files larger than 2 GB (the limit of one mapping) work
+ * and the operating system reads ahead as the scan moves on.
+ * <p>
+ * A file can also be split into byte ranges read by separate readers (e.g. on separate threads):
+ * a reader over [start, end) returns the tokens that start in that range, so adjacent ranges together
+ * return every token of the file exactly once, wherever the boundaries fall.
+ * <p>
+ * Tokens are decoded as UTF-8, like StdIn. The separators are the ASCII characters that
+ * {@link Character#isWhitespace(char)} accepts (space, tab, line feed, vertical tab, form feed,
+ * carriage return and the four separators 0x1C to 0x1F); unlike StdIn, non-ASCII whitespace such as
+ * U+2003 (em space) is part of a token.
+ * <p>
+ * Read errors are thrown as {@link UncheckedIOException}, since {@link Iterator} cannot throw checked
+ * exceptions.
+ */
+public class TokenReader implements Iterator<String>, Closeable {
+
+    /**
+     * The size of a mapped window of a file.
+     */
+    public static final int WINDOW_BYTES = 1 << 28;
+
+    /**
+     * The default size of the buffer for streams.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The stream read from, or null when reading a mapped file.
+     */
+    private final InputStream in;
+
+    /**
+     * The file read from, or null when reading a stream.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The size of the file, or 0 for a stream.
+     */
+    private final long fileSize;
+
+    /**
+     * The offset where the reader stops: tokens starting at or after it are not returned.
+     * Long.MAX_VALUE for a stream.
+     */
+    private final long end;
+
+    /**
+     * The file offset where the next window starts.
+     */
+    private long nextWindow;
+
+    /**
+     * The input offset of the first byte in the buffer.
+     */
+    private long bufferStart;
+
+    /**
+     * The bytes being scanned: the reused stream buffer, or the current file window.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * The index of the next byte to scan in the buffer.
+     */
+    private int position;
+
+    /**
+     * The index after the last valid byte in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The bytes of the token being read by next(), grown as needed.
+     */
+    private byte[] token = new byte[64];
+
+    /**
+     * Reads tokens from a stream, through a 64 KB buffer.
+     * @param in the stream.
+     * @throws IllegalArgumentException if in is null.
+     */
+    public TokenReader(InputStream in) {
+        this(in, BUFFER_SIZE);
+    }
+
+    /**
+     * Reads tokens from a stream, through a buffer of the given size.
+     * @param in the stream.
+     * @param bufferSize the buffer size in bytes.
+     * @throws IllegalArgumentException if in is null or bufferSize is less than 1.
+     */
+    public TokenReader(InputStream in, int bufferSize) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream cannot be null");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.in = in;
+        this.channel = null;
+        this.fileSize = 0;
+        this.end = Long.MAX_VALUE;
+        this.buffer = ByteBuffer.wrap(new byte[bufferSize]);
+    }
+
+    /**
+     * Reads tokens from a file, memory-mapped one window at a time.
+     * @param file the file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public TokenReader(Path file) throws IOException {
+        this(file, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads the tokens of a file that start in the byte range [start, end). A token that starts in the
+     * range is read to its end, even past {@code end}; a token that starts before {@code start} is not
+     * read, even if it runs into the range.
+     * @param file the file.
+     * @param start the offset of the first byte of the range.
+     * @param end the offset after the last byte of the range (clamped to the file size).
+     * @throws IOException if the file cannot be opened or read.
+     * @throws IllegalArgumentException if start is negative or greater than end.
+     */
+    public TokenReader(Path file, long start, long end) throws IOException {
+        if (start < 0 || start > end) {
+            throw new IllegalArgumentException("Range must satisfy 0 <= start <= end");
+        }
+        this.in = null;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.end = Math.min(end, fileSize);
+            this.nextWindow = Math.min(start, fileSize);
+            this.bufferStart = nextWindow;
+            this.buffer = ByteBuffer.allocate(0);
+            if (nextWindow > 0) {
+                ByteBuffer previous = ByteBuffer.allocate(1);
+                channel.read(previous, nextWindow - 1);
+                if (!isWhitespace(previous.get(0))) {
+                    skipTokenBytes(); // The rest of a token that starts in the previous range
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The channel would stay open, since the caller never gets the reader to close
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks if there is another token. It skips the whitespace before it.
+     * @return true if there is another token, false at the end of the input.
+     */
+    public boolean hasNext() {
+        return skipWhitespace();
+    }
+
+    /**
+     * Returns the next token.
+     * @return the token.
+     * @throws NoSuchElementException if there are no more tokens.
+     */
+    public String next() {
+        if (!skipWhitespace()) {
+            throw new NoSuchElementException("No more tokens");
+        }
+        int length = 0;
+        while (true) {
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (isWhitespace(b)) {
+                    return new String(token, 0, length, StandardCharsets.UTF_8);
+                }
+                if (length == token.length) {
+                    token = Arrays.copyOf(token, 2 * length);
+                }
+                token[length++] = b;
+                position++;
+            }
+            if (!refill()) {
+                return new String(token, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Skips up to n tokens without decoding them.
+     * @param n the number of tokens to skip.
+     * @return the number of tokens skipped, less than n only at the end of the input.
+     */
+    public long skip(long n) {
+        long skipped = 0;
+        while (skipped < n && skipWhitespace()) {
+            skipTokenBytes();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Closes the stream or the file.
+     * @throws IOException if closing fails.
+     */
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        } else {
+            channel.close();
+        }
+    }
+
+    /**
+     * Main method for testing the TokenReader class.
+     * It counts the tokens of a file with a {@link Scanner} (as StdIn reads them) and with this reader,
+     * decoding every token and then skipping them all, and prints the times.
+     * @param args optional: the file to read (default: standard input, read by this reader only).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            long start = System.nanoTime();
+            long count = new TokenReader(System.in).skip(Long.MAX_VALUE);
+            System.out.printf("TokenReader: %d tokens in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+            return;
+        }
+        Path file = Paths.get(args[0]);
+
+        long start = System.nanoTime();
+        long count = 0;
+        try (Scanner scanner = new Scanner(new BufferedInputStream(Files.newInputStream(file)), "UTF-8")) {
+            while (scanner.hasNext()) {
+                scanner.next();
+                count++;
+            }
+        }
+        System.out.printf("Scanner (as in StdIn): %d tokens in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        count = 0;
+        try (TokenReader reader = new TokenReader(file)) {
+            while (reader.hasNext()) {
+                reader.next();
+                count++;
+            }
+        }
+        System.out.printf("TokenReader.next: %d tokens in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        try (TokenReader reader = new TokenReader(file)) {
+            count = reader.skip(Long.MAX_VALUE);
+        }
+        System.out.printf("TokenReader.skip: %d tokens in %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Moves past whitespace, refilling the buffer as needed.
+     * @return true if a token starts at the position, false at the end of the input or of the range.
+     */
+    private boolean skipWhitespace() {
+        while (true) {
+            while (position < limit) {
+                if (!isWhitespace(buffer.get(position))) {
+                    return bufferStart + position < end;
+                }
+                position++;
+            }
+            if (!refill()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves past the bytes of a token, up to the whitespace after it or the end of the input.
+     */
+    private void skipTokenBytes() {
+        do {
+            while (position < limit && !isWhitespace(buffer.get(position))) {
+                position++;
+            }
+        } while (position == limit && refill());
+    }
+
+    /**
+     * Replaces the scanned bytes with the next chunk of the stream or the next window of the file.
+     * @return false at the end of the input.
+     */
+    private boolean refill() {
+        try {
+            if (channel != null) {
+                if (nextWindow >= fileSize) {
+                    return false;
+                }
+                // Map the rest of the range, but small windows past it for the last token
+                long wanted = Math.max(end - nextWindow, BUFFER_SIZE);
+                int size = (int) Math.min(Math.min(WINDOW_BYTES, wanted), fileSize - nextWindow);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, nextWindow, size);
+                bufferStart = nextWindow;
+                nextWindow += size;
+                position = 0;
+                limit = size;
+                return true;
+            }
+            int read;
+            do {
+                read = in.read(buffer.array(), 0, buffer.capacity());
+            } while (read == 0);
+            if (read < 0) {
+                return false;
+            }
+            bufferStart += limit;
+            position = 0;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Checks if a byte is an ASCII whitespace character, as {@link Character#isWhitespace(char)} defines it.
+     * Bytes of multi-byte UTF-8 characters are all 0x80 or more, so they never match.
+     * @param b the byte.
+     * @return true if it separates tokens.
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+}
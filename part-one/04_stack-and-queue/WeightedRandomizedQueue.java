@@ -0,0 +1,409 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A randomized queue where each item has a positive weight, and dequeue and sample pick an item
+ * with probability proportional to its weight.
+ * <p>
+ * The items sit in a resizing array like in {@link RandomizedQueue} (power-of-2 capacity, doubling
+ * when full, shrinking by a {@link ResizePolicy}, swap-with-last removal). Next to it, a Fenwick tree
+ * (binary indexed tree) over the weights gives any prefix sum of weights in O(log n), so:
+ * <ul>
+ *   <li>a draw is one random number r in [0, total weight) and a descent of the tree to the item
+ *       whose prefix range holds r: O(log n);</li>
+ *   <li>enqueue and dequeue update the O(log n) tree nodes that cover the changed slots.</li>
+ * </ul>
+ * An alias table would draw in O(1), but it has to be rebuilt in O(n) after every change, so it only
+ * pays for a queue that is sampled many times between updates.
+ * <p>
+ * The weights are doubles, so the tree sums collect rounding errors as weights are added and removed.
+ * The tree is rebuilt from the weights on every resize and after every {@code capacity} updates,
+ * which keeps the error at a few ulps of the total weight for O(1) amortized extra work.
+ */
+public class WeightedRandomizedQueue<Item> {
+
+    /**
+     * The largest power-of-2 capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The items, at indices 0..size-1.
+     */
+    private Item[] items;
+
+    /**
+     * The weight of each item, at the same index; 0 for empty slots.
+     */
+    private double[] weights;
+
+    /**
+     * The Fenwick tree over the weights, 1-based: tree[i] is the sum of the weights of the slots
+     * (i - lowbit(i), i], where lowbit(i) = i &amp; -i. Since the capacity is a power of 2,
+     * tree[capacity] is the total weight.
+     */
+    private double[] tree;
+
+    /**
+     * The number of items.
+     */
+    private int size;
+
+    /**
+     * The length of the arrays (the tree has one more slot), a power of 2.
+     */
+    private int capacity;
+
+    /**
+     * The capacity requested at construction (rounded up to a power of 2). The queue never shrinks below it.
+     */
+    private final int minCapacity;
+
+    /**
+     * Decides when the queue shrinks.
+     */
+    private final ResizePolicy resizePolicy;
+
+    /**
+     * Where the random numbers come from.
+     */
+    private final RandomSource random;
+
+    /**
+     * The size at or below which the queue shrinks, from the resize policy for the current capacity.
+     */
+    private int shrinkThreshold;
+
+    /**
+     * The number of tree updates since it was last rebuilt from the weights.
+     */
+    private int updatesSinceRebuild;
+
+    /**
+     * The number of times the tree was rebuilt from the weights, by resizes or after many updates.
+     */
+    private int rebuildCount;
+
+    /**
+     * The number of times the underlying arrays were replaced.
+     */
+    private int resizeCount;
+
+    /**
+     * The total number of items copied from old arrays to new ones.
+     */
+    private long copiedItemCount;
+
+    /**
+     * Creates an empty weighted queue with a capacity of 1.
+     */
+    public WeightedRandomizedQueue() {
+        this(1);
+    }
+
+    /**
+     * Creates an empty weighted queue that can hold {@code initialCapacity} items without resizing.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30.
+     */
+    public WeightedRandomizedQueue(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.DEFAULT, RandomSource.stdRandom());
+    }
+
+    /**
+     * Creates an empty weighted queue with an initial capacity, a shrink policy and a random source.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     *        The queue never shrinks below it.
+     * @param resizePolicy when to shrink, e.g. {@link ResizePolicy#NEVER_SHRINK}.
+     * @param random the source of random numbers, e.g. {@code RandomSource.xoshiro(seed)}.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30,
+     *         or if resizePolicy or random is null.
+     */
+    public WeightedRandomizedQueue(int initialCapacity, ResizePolicy resizePolicy, RandomSource random) {
+        if (resizePolicy == null) {
+            throw new IllegalArgumentException("Resize policy cannot be null");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Random source cannot be null");
+        }
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = powerOfTwoAtLeast(initialCapacity);
+        this.minCapacity = capacity;
+        this.resizePolicy = resizePolicy;
+        this.random = random;
+        this.shrinkThreshold = resizePolicy.shrinkThreshold(capacity);
+        this.items = (Item[]) new Object[capacity];
+        this.weights = new double[capacity];
+        this.tree = new double[capacity + 1];
+        this.size = 0;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     * @return true if the queue is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of items in the queue.
+     * @return the size of the queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the sum of the weights of the items in the queue.
+     * @return the total weight (0 if the queue is empty).
+     */
+    public double totalWeight() {
+        return size == 0 ? 0 : tree[capacity];
+    }
+
+    /**
+     * Adds an item with the given weight.
+     * If the queue is full, it doubles its capacity.
+     * @param item the item to be added.
+     * @param weight the weight of the item.
+     * @throws IllegalArgumentException if the item is null, if the weight is not positive and finite,
+     *         or if it would make the total weight infinite.
+     */
+    public void enqueue(Item item, double weight) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Weight must be positive and finite");
+        }
+        if (Double.isInfinite(totalWeight() + weight)) {
+            throw new IllegalArgumentException("Total weight would overflow");
+        }
+        if (size == capacity) {
+            resize(capacity * 2);
+        }
+        items[size] = item;
+        weights[size] = weight;
+        add(size, weight);
+        size++;
+        countUpdates(1);
+    }
+
+    /**
+     * Removes and returns a random item, chosen with probability proportional to its weight.
+     * @return the removed item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public Item dequeue() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int index = randomIndex();
+        Item removingItem = items[index];
+        int last = size - 1;
+        double lastWeight = weights[last];
+        if (index != last) {
+            // Move the last item into the hole: the hole's weight changes, the last slot empties
+            items[index] = items[last];
+            add(index, lastWeight - weights[index]);
+            weights[index] = lastWeight;
+        }
+        add(last, -lastWeight);
+        items[last] = null;
+        weights[last] = 0;
+        size--;
+        countUpdates(2);
+        if (size > 0 && size <= shrinkThreshold && capacity > minCapacity) {
+            shrink();
+        }
+        return removingItem;
+    }
+
+    /**
+     * Returns a random item without removing it, chosen with probability proportional to its weight.
+     * @return a random item.
+     * @throws NoSuchElementException if the queue is empty.
+     */
+    public Item sample() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return items[randomIndex()];
+    }
+
+    /**
+     * Shrinks the underlying arrays to the smallest power of 2 that holds the current items.
+     */
+    public void trimToSize() {
+        int newCapacity = powerOfTwoAtLeast(Math.max(size, 1));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of times the underlying arrays were replaced (grown, shrunk or trimmed).
+     * @return the resize count.
+     */
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Returns the number of times the tree was rebuilt from the weights (on every resize, and after
+     * as many updates as slots).
+     * @return the rebuild count.
+     */
+    public int rebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Returns the total number of items copied by resizes (each with its weight).
+     * @return the copied item count.
+     */
+    public long copiedItemCount() {
+        return copiedItemCount;
+    }
+
+    /**
+     * Main method for testing the WeightedRandomizedQueue class.
+     * It samples n times from items weighted 1, 2, 3 and 4 and prints how often each came up
+     * (about 10%, 20%, 30% and 40%), then dequeues all of them.
+     * @param args optional: the number of samples (default 100000).
+     */
+    public static void main(String[] args) {
+        int n = 100000;
+        try {
+            if (args.length > 0) {
+                n = Integer.parseInt(args[0]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid argument. Using default: 100000 samples.");
+            n = 100000;
+        }
+
+        WeightedRandomizedQueue<String> queue = new WeightedRandomizedQueue<>();
+        String[] names = { "A", "B", "C", "D" };
+        for (int i = 0; i < names.length; i++) {
+            queue.enqueue(names[i], i + 1);
+        }
+        System.out.println("Size: " + queue.size() + ", total weight: " + queue.totalWeight()); // 4, 10.0
+
+        int[] counts = new int[names.length];
+        for (int i = 0; i < n; i++) {
+            counts[queue.sample().charAt(0) - 'A']++;
+        }
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%s (weight %d): %.1f%%%n", names[i], i + 1, 100.0 * counts[i] / n);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        while (!queue.isEmpty()) {
+            sb.append(queue.dequeue()).append(" ");
+        }
+        System.out.println("Dequeue order: " + sb.toString().trim());
+    }
+
+    /**
+     * Draws r uniformly in [0, total weight) and returns the index of the item whose range of the
+     * prefix sums holds it, by descending the Fenwick tree from the largest power of 2.
+     * @return an index in 0..size-1.
+     */
+    private int randomIndex() {
+        double remaining = random.nextDouble() * tree[capacity];
+        int position = 0; // The number of slots known to lie before the target
+        for (int step = capacity; step > 0; step >>>= 1) {
+            int next = position + step;
+            if (next <= capacity && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        // Rounding can push the descent past the last item (whose weight is positive, so never before it)
+        return Math.min(position, size - 1);
+    }
+
+    /**
+     * Adds delta to the weight of slot index in the tree.
+     * @param index the 0-based slot.
+     * @param delta the change of its weight.
+     */
+    private void add(int index, double delta) {
+        for (int i = index + 1; i <= capacity; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Counts tree updates and rebuilds the tree once there have been as many as slots,
+     * so that rounding errors cannot pile up.
+     * @param updates the number of slots just updated.
+     */
+    private void countUpdates(int updates) {
+        updatesSinceRebuild += updates;
+        if (updatesSinceRebuild >= capacity) {
+            rebuildTree();
+        }
+    }
+
+    /**
+     * Rebuilds the tree from the weights in O(capacity): each node passes its sum up to its parent.
+     */
+    private void rebuildTree() {
+        tree[0] = 0;
+        System.arraycopy(weights, 0, tree, 1, capacity);
+        for (int i = 1; i <= capacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+        updatesSinceRebuild = 0;
+        rebuildCount++;
+    }
+
+    /**
+     * Moves the items and weights to arrays of a new capacity and rebuilds the tree.
+     * @param newCapacity the new capacity (a power of 2, at least the size).
+     */
+    private void resize(int newCapacity) {
+        if (newCapacity < size) {
+            throw new IllegalArgumentException("New capacity must be greater than or equal to the current size");
+        }
+        Item[] newItems = (Item[]) new Object[newCapacity];
+        double[] newWeights = new double[newCapacity];
+        System.arraycopy(items, 0, newItems, 0, size);
+        System.arraycopy(weights, 0, newWeights, 0, size);
+        items = newItems;
+        weights = newWeights;
+        tree = new double[newCapacity + 1];
+        capacity = newCapacity;
+        shrinkThreshold = resizePolicy.shrinkThreshold(newCapacity);
+        rebuildTree();
+        resizeCount++;
+        copiedItemCount += size;
+    }
+
+    /**
+     * Shrinks the arrays to the smallest power of 2 that is at least twice the size (and at least the
+     * initial capacity), so that they are about half full.
+     */
+    private void shrink() {
+        int newCapacity = Math.max(minCapacity, powerOfTwoAtLeast(2 * size));
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the smallest power of 2 that is greater than or equal to n.
+     * @param n a value between 1 and 2^30.
+     * @return the power of 2.
+     */
+    private static int powerOfTwoAtLeast(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+}
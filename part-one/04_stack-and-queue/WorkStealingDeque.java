@@ -0,0 +1,264 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Chase-Lev work-stealing deque for one owner thread and any number of thief threads.
+ * <p>
+ * The owner uses the back like a stack ({@link #addLast}, {@link #removeLast}) and never takes a lock.
+ * Thieves take from the front with {@link #steal()}, which is a single CAS on the front index.
+ * The owner only needs a CAS when it races a thief for the last item.
+ * <p>
+ * It is a circular array like {@link Deque}, but the indices are never wrapped: {@code front} and
+ * {@code back} only grow (as longs), and {@code index & mask} picks the slot. The array doubles when
+ * it is full and never shrinks, because thieves may still be reading the old one.
+ * <p>
+ * Based on D. Chase and Y. Lev, "Dynamic Circular Work-Stealing Deque" (SPAA 2005), with the memory
+ * ordering of N. M. Le et al., "Correct and Efficient Work-Stealing for Weak Memory Models" (PPoPP 2013).
+ * Here the ordering comes from the Java memory model: {@code back} is volatile and {@code front} is an
+ * {@link AtomicLong}, so all accesses to them are sequentially consistent.
+ */
+public class WorkStealingDeque<Item> {
+
+    /**
+     * A fixed-size array of items, indexed by {@code index & mask}.
+     */
+    private static final class Buffer<Item> {
+        /**
+         * The slots; atomic so that an item written by the owner is visible to a thief that reads it.
+         */
+        private final AtomicReferenceArray<Item> slots;
+
+        /**
+         * The capacity minus 1; the capacity is a power of 2.
+         */
+        private final int mask;
+
+        Buffer(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+
+        Item get(long index) {
+            return slots.get((int) index & mask);
+        }
+
+        void put(long index, Item item) {
+            slots.lazySet((int) index & mask, item);
+        }
+
+        /**
+         * Returns a copy with twice the capacity, holding the items from front (inclusive) to back (exclusive).
+         */
+        Buffer<Item> grow(long front, long back) {
+            Buffer<Item> bigger = new Buffer<>(capacity() * 2);
+            for (long i = front; i < back; i++) {
+                bigger.put(i, get(i));
+            }
+            return bigger;
+        }
+    }
+
+    /**
+     * The largest power-of-2 capacity an array can have.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The index of the first item, where thieves steal. Only ever incremented, by a CAS.
+     */
+    private final AtomicLong front = new AtomicLong();
+
+    /**
+     * The index after the last item. Only the owner writes it.
+     */
+    private volatile long back;
+
+    /**
+     * The current array. Only the owner replaces it, before publishing the new back index.
+     */
+    private volatile Buffer<Item> buffer;
+
+    /**
+     * Initializes an empty deque with a default capacity of 16.
+     */
+    public WorkStealingDeque() {
+        this(16);
+    }
+
+    /**
+     * Initializes an empty deque that can hold {@code initialCapacity} items before it grows.
+     * @param initialCapacity the number of items to make room for, rounded up to a power of 2.
+     * @throws IllegalArgumentException if initialCapacity is less than 1 or greater than 2^30.
+     */
+    public WorkStealingDeque(int initialCapacity) {
+        if (initialCapacity < 1 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Initial capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        int capacity = initialCapacity == 1 ? 1 : Integer.highestOneBit(initialCapacity - 1) << 1;
+        this.buffer = new Buffer<>(capacity);
+    }
+
+    /**
+     * Checks if the deque is empty. From any thread other than the owner, the answer may be stale.
+     * @return true if the deque is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of items in the deque. From any thread other than the owner, it is an estimate.
+     * @return the size of the deque.
+     */
+    public int size() {
+        long size = back - front.get();
+        return size < 0 ? 0 : (int) size;
+    }
+
+    /**
+     * Adds an item to the back of the deque. Owner thread only.
+     * If the deque is full, it doubles its capacity.
+     * @param item the item to be added to the back.
+     * @throws IllegalArgumentException if the item is null.
+     * @throws IllegalStateException if the deque already holds 2^30 items.
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item cannot be null");
+        }
+        long b = back;
+        long f = front.get();
+        Buffer<Item> a = buffer;
+        if (b - f >= a.capacity()) {
+            if (a.capacity() == MAX_CAPACITY) {
+                throw new IllegalStateException("Deque is full");
+            }
+            a = a.grow(f, b);
+            buffer = a;
+        }
+        a.put(b, item);
+        back = b + 1; // Publishes the item (and the new buffer) to thieves
+    }
+
+    /**
+     * Removes and returns the item at the back of the deque. Owner thread only.
+     * @return the item removed from the back, or null if the deque is empty
+     *         (or a thief stole the last item first).
+     */
+    public Item removeLast() {
+        long b = back - 1;
+        Buffer<Item> a = buffer;
+        back = b; // Claim the slot before looking at front, so that thieves see it as taken
+        long f = front.get();
+        if (f > b) {
+            back = b + 1; // It was empty
+            return null;
+        }
+        Item item = a.get(b);
+        if (f == b) {
+            // The last item: race the thieves for it
+            if (!front.compareAndSet(f, f + 1)) {
+                item = null;
+            }
+            back = b + 1;
+        }
+        if (item != null) {
+            a.put(b, null); // Only the owner reads slot b from now on, so clearing it is safe
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns the item at the front of the deque. Any thread may call it.
+     * It does not retry: on contention the caller should move on to another victim or try again.
+     * Stolen slots are not cleared; the owner overwrites them as it adds items.
+     * @return the item removed from the front, or null if the deque is empty or another thread
+     *         took the item first.
+     */
+    public Item steal() {
+        long f = front.get();
+        long b = back; // Read after front
+        if (f >= b) {
+            return null;
+        }
+        Buffer<Item> a = buffer;
+        Item item = a.get(f);
+        if (!front.compareAndSet(f, f + 1)) {
+            return null; // Another thief or the owner took it
+        }
+        return item;
+    }
+
+    /**
+     * Main method for testing the WorkStealingDeque implementation.
+     * The owner adds n tasks and works from the back while the thieves steal from the front,
+     * then it prints how many tasks each thread ran.
+     * @param args optional: the number of tasks (default 1000000) and thieves (default 3).
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int n = 1000000;
+        int thiefCount = 3;
+        try {
+            if (args.length > 0) {
+                n = Integer.parseInt(args[0]);
+            }
+            if (args.length > 1) {
+                thiefCount = Integer.parseInt(args[1]);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid arguments. Using defaults: 1000000 tasks, 3 thieves.");
+            n = 1000000;
+            thiefCount = 3;
+        }
+
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        AtomicInteger done = new AtomicInteger();
+        final int total = n;
+        Thread[] thieves = new Thread[thiefCount];
+        int[] stolen = new int[thiefCount];
+        for (int i = 0; i < thiefCount; i++) {
+            final int id = i;
+            thieves[i] = new Thread(() -> {
+                while (done.get() < total) {
+                    if (deque.steal() != null) {
+                        stolen[id]++;
+                        done.incrementAndGet();
+                    }
+                }
+            });
+            thieves[i].start();
+        }
+
+        long start = System.nanoTime();
+        int ownRun = 0;
+        for (int i = 0; i < n; i++) {
+            deque.addLast(i);
+            if (i % 2 == 1 && deque.removeLast() != null) {
+                ownRun++;
+                done.incrementAndGet();
+            }
+        }
+        Integer task;
+        while ((task = deque.removeLast()) != null || done.get() < total) {
+            if (task != null) {
+                ownRun++;
+                done.incrementAndGet();
+            }
+        }
+        for (Thread thief : thieves) {
+            thief.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d tasks in %.1f ms%n", n, elapsed / 1e6);
+        System.out.printf("Owner ran %d%n", ownRun);
+        for (int i = 0; i < thiefCount; i++) {
+            System.out.printf("Thief %d stole %d%n", i, stolen[i]);
+        }
+    }
+}
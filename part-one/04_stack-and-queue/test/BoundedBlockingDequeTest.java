@@ -0,0 +1,139 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class BoundedBlockingDequeTest {
+
+    @Test
+    public void testFifoAndCapacity() {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(3);
+        assertTrue(deque.isEmpty());
+        assertTrue(deque.offerLast(1));
+        assertTrue(deque.offerLast(2));
+        assertTrue(deque.offerLast(3));
+        assertFalse(deque.offerLast(4));
+        assertEquals(3, deque.size());
+        assertEquals(0, deque.remainingCapacity());
+        assertEquals(1, deque.pollFirst());
+        assertEquals(2, deque.pollFirst());
+        assertEquals(3, deque.pollFirst());
+        assertNull(deque.pollFirst());
+    }
+
+    @Test
+    public void testOtherEnds() {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(4);
+        deque.offerLast(2);
+        assertTrue(deque.offerFirst(1));
+        deque.offerLast(3);
+        assertEquals(3, deque.pollLast());
+        assertEquals(1, deque.pollFirst());
+        assertEquals(2, deque.pollLast());
+        assertNull(deque.pollLast());
+    }
+
+    @Test
+    public void testAddAllAndDrainToWrapAround() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(5);
+        Integer[] batch = {0, 1, 2, 3, 4, 5, 6};
+        Integer[] buffer = new Integer[4];
+        for (int round = 0; round < 10; round++) {
+            assertEquals(3, deque.addAll(batch, 1, 4, 0, TimeUnit.MILLISECONDS));
+            assertEquals(2, deque.addAll(batch, 4, 7, 0, TimeUnit.MILLISECONDS)); // Only 2 fit
+            assertEquals(4, deque.drainTo(buffer, 4));
+            assertArrayEquals(new Integer[]{1, 2, 3, 4}, buffer);
+            assertEquals(5, deque.takeFirst());
+            assertEquals(0, deque.drainTo(buffer, 4));
+        }
+    }
+
+    @Test
+    public void testTimeoutsAndInvalidArguments() throws InterruptedException {
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(1);
+        assertNull(deque.pollFirst(10, TimeUnit.MILLISECONDS));
+        deque.putLast(1);
+        assertFalse(deque.offerLast(2, 10, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalArgumentException.class, () -> deque.offerLast(null));
+        assertThrows(IllegalArgumentException.class, () -> deque.addAll(new Integer[]{1, null}, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> deque.drainTo(new Integer[1], 2));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedBlockingDeque<Integer>(0));
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testProducersAndConsumersPassEveryItemOnce() throws InterruptedException {
+        final int producerCount = 3;
+        final int consumerCount = 3;
+        final int perProducer = 50000;
+        final int n = producerCount * perProducer;
+        BoundedBlockingDeque<Integer> deque = new BoundedBlockingDeque<>(16);
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+
+        Thread[] threads = new Thread[producerCount + consumerCount];
+        for (int p = 0; p < producerCount; p++) {
+            final int base = p * perProducer;
+            final boolean batched = p % 2 == 0;
+            threads[p] = new Thread(() -> {
+                try {
+                    Integer[] batch = new Integer[10];
+                    for (int i = 0; i < perProducer; i += batch.length) {
+                        for (int j = 0; j < batch.length; j++) {
+                            batch[j] = base + i + j;
+                        }
+                        if (batched) {
+                            deque.addAll(batch, 0, batch.length);
+                        } else {
+                            for (Integer item : batch) {
+                                deque.putLast(item);
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int c = 0; c < consumerCount; c++) {
+            final boolean batched = c % 2 == 0;
+            threads[producerCount + c] = new Thread(() -> {
+                Integer[] buffer = new Integer[7];
+                try {
+                    while (true) {
+                        Integer item = deque.pollFirst(200, TimeUnit.MILLISECONDS);
+                        if (item == null) {
+                            return; // Producers are done
+                        }
+                        taken.incrementAndGet(item);
+                        if (batched) {
+                            int got = deque.drainTo(buffer, buffer.length);
+                            for (int i = 0; i < got; i++) {
+                                taken.incrementAndGet(buffer[i]);
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(30000);
+            assertFalse(thread.isAlive());
+        }
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, taken.get(i), "item " + i);
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMainMethod() throws InterruptedException {
+        BoundedBlockingDeque.main(new String[]{"10000", "16"});
+    }
+}
@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Iterator;
+
+public class ChunkedDequeTest {
+
+    @Test
+    public void testIsEmptyAndSize() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+        deque.addFirst(1);
+        assertFalse(deque.isEmpty());
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testStackAndQueueAcrossBlocks() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>(4);
+        for (int i = 0; i < 100; i++) {
+            deque.addLast(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, deque.removeFirst());
+        }
+        for (int i = 0; i < 100; i++) {
+            deque.addFirst(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(99 - i, deque.removeFirst());
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMatchesDequeWithRandomOperations() {
+        ChunkedDeque<Integer> chunked = new ChunkedDeque<>(2);
+        Deque<Integer> deque = new Deque<>();
+        java.util.Random rand = new java.util.Random(7);
+        for (int i = 0; i < 20000; i++) {
+            int op = rand.nextInt(4);
+            if (op == 0 || deque.isEmpty() && op >= 2) {
+                chunked.addFirst(i);
+                deque.addFirst(i);
+            } else if (op == 1) {
+                chunked.addLast(i);
+                deque.addLast(i);
+            } else if (op == 2) {
+                assertEquals(deque.removeFirst(), chunked.removeFirst());
+            } else {
+                assertEquals(deque.removeLast(), chunked.removeLast());
+            }
+            assertEquals(deque.size(), chunked.size());
+        }
+        assertEquals(deque.toString(), chunked.toString());
+    }
+
+    @Test
+    public void testRemoveOnEmptyThrows() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>();
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeFirst());
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeLast());
+        assertThrows(IllegalArgumentException.class, () -> deque.addLast(null));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedDeque<Integer>(1));
+    }
+
+    @Test
+    public void testIterator() {
+        ChunkedDeque<Integer> deque = new ChunkedDeque<>(2);
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        deque.addFirst(0);
+        Iterator<Integer> it = deque.iterator();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(it.hasNext());
+            assertEquals(i, it.next());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, () -> it.next());
+        assertThrows(UnsupportedOperationException.class, () -> it.remove());
+    }
+
+    @Test
+    public void testMainMethod() {
+        ChunkedDeque.main(new String[]{"10000"});
+    }
+}
@@ -106,6 +106,208 @@ public class DequeTest {
         assertThrows(UnsupportedOperationException.class, () -> it.remove());
     }
 
+    @Test
+    public void testInitialCapacityWrapsAround() {
+        // 3 rounds up to 4; the mask must wrap indices in both directions without resizing
+        Deque<Integer> deque = new Deque<>(3);
+        for (int round = 0; round < 10; round++) {
+            deque.addFirst(1);
+            deque.addLast(2);
+            deque.addFirst(0);
+            deque.addLast(3);
+            assertEquals("[0 1 2 3]", deque.toString());
+            assertEquals(0, deque.removeFirst());
+            assertEquals(3, deque.removeLast());
+            assertEquals(2, deque.removeLast());
+            assertEquals(1, deque.removeFirst());
+            assertTrue(deque.isEmpty());
+        }
+    }
+
+    @Test
+    public void testInitialCapacityGrowsAndShrinks() {
+        Deque<Integer> deque = new Deque<>(8);
+        for (int i = 0; i < 100; i++) {
+            deque.addLast(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, deque.removeFirst());
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testInvalidInitialCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new Deque<Integer>(0));
+        assertThrows(IllegalArgumentException.class, () -> new Deque<Integer>((1 << 30) + 1));
+    }
+
+    @Test
+    public void testResizeCountsAndDefaultShrink() {
+        Deque<Integer> deque = new Deque<>();
+        for (int i = 0; i < 8; i++) {
+            deque.addLast(i);
+        }
+        // 1 -> 2 -> 4 -> 8, copying 1 + 2 + 4 items
+        assertEquals(3, deque.resizeCount());
+        assertEquals(7, deque.copiedItemCount());
+        for (int i = 0; i < 6; i++) {
+            deque.removeFirst();
+        }
+        // Shrinks 8 -> 4 at size 2, copying 2 items
+        assertEquals(4, deque.resizeCount());
+        assertEquals(9, deque.copiedItemCount());
+    }
+
+    @Test
+    public void testNeverShrinkAndTrimToSize() {
+        Deque<Integer> deque = new Deque<>(1, ResizePolicy.NEVER_SHRINK);
+        for (int i = 0; i < 1024; i++) {
+            deque.addLast(i);
+        }
+        int grows = deque.resizeCount();
+        for (int i = 0; i < 1020; i++) {
+            deque.removeFirst();
+        }
+        assertEquals(grows, deque.resizeCount());
+        deque.trimToSize();
+        assertEquals(grows + 1, deque.resizeCount());
+        assertEquals("[1020 1021 1022 1023]", deque.toString());
+    }
+
+    @Test
+    public void testHysteresisAvoidsThrashing() {
+        Deque<Integer> byDefault = new Deque<>();
+        Deque<Integer> withHysteresis = new Deque<>(1, ResizePolicy.hysteresis(8));
+        for (Deque<Integer> deque : java.util.Arrays.asList(byDefault, withHysteresis)) {
+            for (int i = 0; i < 1024; i++) {
+                deque.addLast(i);
+            }
+            // Swing between 255 and 513 items
+            for (int round = 0; round < 10; round++) {
+                while (deque.size() > 255) {
+                    deque.removeFirst();
+                }
+                while (deque.size() < 513) {
+                    deque.addLast(round);
+                }
+            }
+        }
+        assertTrue(withHysteresis.resizeCount() < byDefault.resizeCount());
+        assertThrows(IllegalArgumentException.class, () -> ResizePolicy.hysteresis(2));
+        assertThrows(IllegalArgumentException.class, () -> new Deque<Integer>(1, null));
+    }
+
+    @Test
+    public void testAddAllMatchesSingleAdds() {
+        Integer[] batch = {10, 11, 12, 13, 14, 15, 16};
+        for (int start = 0; start < 8; start++) {
+            Deque<Integer> bulk = new Deque<>(8);
+            Deque<Integer> single = new Deque<>(8);
+            // Move front to different positions so the batches wrap around
+            for (int i = 0; i < start; i++) {
+                bulk.addLast(0);
+                bulk.removeFirst();
+                single.addLast(0);
+                single.removeFirst();
+            }
+            bulk.addLast(1);
+            single.addLast(1);
+            bulk.addAllLast(batch, 2, 6);
+            for (int i = 2; i < 6; i++) {
+                single.addLast(batch[i]);
+            }
+            bulk.addAllFirst(batch, 0, 7); // Grows
+            for (int i = 6; i >= 0; i--) {
+                single.addFirst(batch[i]);
+            }
+            assertEquals(single.toString(), bulk.toString());
+            assertEquals(single.size(), bulk.size());
+            while (!single.isEmpty()) {
+                assertEquals(single.removeLast(), bulk.removeLast());
+            }
+        }
+    }
+
+    @Test
+    public void testAddAllRejectsBadBatches() {
+        Deque<Integer> deque = new Deque<>();
+        assertThrows(IllegalArgumentException.class, () -> deque.addAllLast(new Integer[]{1, null}, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> deque.addAllFirst(new Integer[]{1}, 0, 2));
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testForEachAndSpliteratorOverWrappedRing() {
+        Deque<Integer> deque = new Deque<>(16);
+        for (int i = 0; i < 10; i++) {
+            deque.addLast(-1);
+            deque.removeFirst();
+        }
+        for (int i = 0; i < 12; i++) {
+            deque.addLast(i); // Wraps around at index 16
+        }
+        java.util.List<Integer> seen = new java.util.ArrayList<>();
+        deque.forEach(seen::add);
+        java.util.List<Integer> expected = new java.util.ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, seen);
+
+        java.util.Spliterator<Integer> right = deque.spliterator();
+        assertEquals(12, right.estimateSize());
+        java.util.Spliterator<Integer> left = right.trySplit();
+        assertEquals(6, left.estimateSize());
+        assertEquals(6, right.estimateSize());
+        seen.clear();
+        assertTrue(left.tryAdvance(seen::add));
+        left.forEachRemaining(seen::add);
+        right.forEachRemaining(seen::add);
+        assertEquals(expected, seen);
+
+        assertEquals(expected, java.util.stream.StreamSupport.stream(deque.spliterator(), true)
+                .collect(java.util.stream.Collectors.toList()));
+    }
+
+    @Test
+    public void testIteratorFailsFastAfterModification() {
+        Deque<Integer> deque = new Deque<>();
+        deque.addLast(1);
+        deque.addLast(2);
+        Iterator<Integer> it = deque.iterator();
+        assertEquals(1, it.next());
+        deque.addLast(3); // Resizes 2 -> 4
+        assertThrows(java.util.ConcurrentModificationException.class, () -> it.next());
+
+        Iterator<Integer> it2 = deque.iterator();
+        deque.removeFirst();
+        assertThrows(java.util.ConcurrentModificationException.class, () -> it2.next());
+
+        assertThrows(java.util.ConcurrentModificationException.class, () -> deque.forEach(item -> deque.addLast(item)));
+        java.util.Spliterator<Integer> spliterator = deque.spliterator();
+        deque.addFirst(0);
+        assertThrows(java.util.ConcurrentModificationException.class, () -> spliterator.tryAdvance(item -> { }));
+    }
+
+    @Test
+    public void testSnapshotIteratorIgnoresModification() {
+        Deque<Integer> deque = new Deque<>(4);
+        deque.addLast(1);
+        deque.addLast(2);
+        deque.addFirst(0); // Front wraps around to the end of the array
+        Iterator<Integer> it = deque.snapshotIterator();
+        assertEquals(0, it.next());
+        for (int i = 3; i < 100; i++) {
+            deque.addLast(i); // Several resizes
+        }
+        deque.removeFirst();
+        assertEquals(1, it.next());
+        assertEquals(2, it.next());
+        assertFalse(it.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, () -> it.next());
+    }
+
     @Test
     public void testMainMethod() {
         // Just ensure main runs without exceptions
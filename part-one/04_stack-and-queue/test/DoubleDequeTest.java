@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.PrimitiveIterator;
+
+public class DoubleDequeTest {
+
+    @Test
+    public void testIsEmptyAndSize() {
+        DoubleDeque deque = new DoubleDeque();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+        deque.addFirst(1.5);
+        assertFalse(deque.isEmpty());
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testAddFirstAndRemoveLast() {
+        DoubleDeque deque = new DoubleDeque();
+        deque.addFirst(1.5);
+        deque.addFirst(2.5);
+        assertEquals(1.5, deque.removeLast());
+        assertEquals(2.5, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testAddLastAndRemoveFirst() {
+        DoubleDeque deque = new DoubleDeque();
+        deque.addLast(1.5);
+        deque.addLast(2.5);
+        assertEquals(1.5, deque.removeFirst());
+        assertEquals(2.5, deque.removeFirst());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMatchesDequeThroughResizes() {
+        DoubleDeque primitive = new DoubleDeque();
+        Deque<Double> boxed = new Deque<>();
+        java.util.Random rand = new java.util.Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int op = rand.nextInt(4);
+            double value = i + 0.25;
+            if (op == 0 || boxed.isEmpty() && op >= 2) {
+                primitive.addFirst(value);
+                boxed.addFirst(value);
+            } else if (op == 1) {
+                primitive.addLast(value);
+                boxed.addLast(value);
+            } else if (op == 2) {
+                assertEquals((double) boxed.removeFirst(), primitive.removeFirst());
+            } else {
+                assertEquals((double) boxed.removeLast(), primitive.removeLast());
+            }
+            assertEquals(boxed.size(), primitive.size());
+        }
+        assertEquals(boxed.toString(), primitive.toString());
+    }
+
+    @Test
+    public void testWrapsAroundAFixedCapacity() {
+        DoubleDeque deque = new DoubleDeque(4);
+        for (int i = 1; i <= 4; i++) {
+            deque.addLast(i);
+        }
+        assertEquals(1.0, deque.removeFirst());
+        assertEquals(2.0, deque.removeFirst());
+        deque.addLast(5); // Stored at index 0, before the front
+        deque.addLast(6);
+        assertEquals("[3.0 4.0 5.0 6.0]", deque.toString());
+        assertEquals(6.0, deque.removeLast());
+        deque.addFirst(2); // Back to index 1
+        assertEquals("[2.0 3.0 4.0 5.0]", deque.toString());
+        assertThrows(IllegalArgumentException.class, () -> new DoubleDeque(0));
+    }
+
+    @Test
+    public void testRemoveOnEmptyThrows() {
+        DoubleDeque deque = new DoubleDeque();
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeFirst());
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeLast());
+    }
+
+    @Test
+    public void testIterator() {
+        DoubleDeque deque = new DoubleDeque();
+        deque.addLast(2.5);
+        deque.addLast(3.5);
+        deque.addFirst(1.5);
+        PrimitiveIterator.OfDouble it = deque.iterator();
+        assertEquals(1.5, it.nextDouble());
+        assertEquals(2.5, it.nextDouble());
+        assertEquals(3.5, it.nextDouble());
+        assertFalse(it.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, () -> it.nextDouble());
+        assertThrows(UnsupportedOperationException.class, () -> it.remove());
+    }
+
+    @Test
+    public void testMainMethod() {
+        DoubleDeque.main(new String[]{});
+    }
+}
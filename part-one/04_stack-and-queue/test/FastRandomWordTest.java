@@ -0,0 +1,163 @@
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class FastRandomWordTest {
+    @Test
+    public void testFastRandomWordOutput() throws Exception {
+        String input = "apple banana cherry date";
+        InputStream originalIn = System.in;
+        PrintStream originalOut = System.out;
+        ByteArrayInputStream in = new ByteArrayInputStream(input.getBytes());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setIn(in);
+        System.setOut(new PrintStream(out));
+        
+        // Run main
+        FastRandomWord.main(new String[]{});
+        
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+        String result = out.toString().trim();
+        // The result should be one of the input words
+        assertTrue(result.equals("apple") || result.equals("banana") || result.equals("cherry") || result.equals("date"),
+            "Output should be one of the input words, but was: " + result);
+    }
+
+    @Test
+    public void testFastModeReadsAFile() throws Exception {
+        Path file = Files.createTempFile("words", ".txt");
+        try {
+            Files.write(file, "apple banana\ncherry\tdate".getBytes());
+            try (TokenReader reader = new TokenReader(file)) {
+                String result = FastRandomWord.champion(reader);
+                assertTrue(result.equals("apple") || result.equals("banana") || result.equals("cherry") || result.equals("date"),
+                    "Output should be one of the input words, but was: " + result);
+            }
+            assertEquals("", FastRandomWord.champion(new ArrayList<String>().iterator()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelSampleReturnsDistinctWordsOfTheFile() throws Exception {
+        Path file = Files.createTempFile("words", ".txt");
+        try {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 200000; i++) {
+                input.append("w").append(i).append(i % 13 == 0 ? "\n" : " ");
+            }
+            Files.write(file, input.toString().getBytes());
+            // 4 KB ranges, so the file (about 1.5 MB) is read as 8 ranges by 3 threads
+            assertEquals(8, FastRandomWord.countChunks(Files.size(file), 8, 4096));
+            String[] sample = FastRandomWord.parallelSample(file, 100, 8, 4096, 3, 42);
+            assertEquals(100, sample.length);
+            Set<String> distinct = new HashSet<>(Arrays.asList(sample));
+            assertEquals(100, distinct.size());
+            for (String word : sample) {
+                int index = Integer.parseInt(word.substring(1));
+                assertTrue(index >= 0 && index < 200000, word);
+            }
+            assertEquals(5, FastRandomWord.parallelSample(file, 5, 1, 4096, 1, 7).length);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testParallelSampleOfASplitFileIsUniform() throws Exception {
+        // 20 words of 3 to 4 bytes in 16-byte ranges: most range boundaries fall inside a word
+        final int n = 20;
+        final int k = 5;
+        final int trials = 4000;
+        Path file = Files.createTempFile("words", ".txt");
+        try {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < n; i++) {
+                input.append('w').append(i).append(i % 3 == 0 ? '\n' : ' ');
+            }
+            Files.write(file, input.toString().getBytes());
+            assertEquals(4, FastRandomWord.countChunks(Files.size(file), 6, 16));
+            int[] counts = new int[n];
+            for (int t = 0; t < trials; t++) {
+                String[] sample = FastRandomWord.parallelSample(file, k, 6, 16, 2, t);
+                assertEquals(k, new HashSet<>(Arrays.asList(sample)).size());
+                for (String word : sample) {
+                    counts[Integer.parseInt(word.substring(1))]++;
+                }
+            }
+            double expected = trials * k / (double) n;
+            for (int i = 0; i < n; i++) {
+                assertEquals(expected, counts[i], expected * 0.1, "word " + i);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCountChunks() {
+        assertEquals(1, FastRandomWord.countChunks(1488890, 8, 1 << 20));
+        assertEquals(8, FastRandomWord.countChunks(1488890, 8, 4096));
+        assertEquals(3, FastRandomWord.countChunks(100, 8, 32));
+        assertEquals(1, FastRandomWord.countChunks(0, 8, 32));
+    }
+
+    @Test
+    public void testMainParallelMode() throws Exception {
+        Path file = Files.createTempFile("words", ".txt");
+        PrintStream originalOut = System.out;
+        try {
+            Files.write(file, "apple banana cherry date".getBytes());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(out));
+            FastRandomWord.main(new String[]{"--parallel", file.toString(), "3", "2"});
+            System.setOut(originalOut);
+            String[] lines = out.toString().trim().split("\\s+");
+            assertEquals(3, new HashSet<>(Arrays.asList(lines)).size());
+            for (String line : lines) {
+                assertTrue(line.matches("apple|banana|cherry|date"), line);
+            }
+        } finally {
+            System.setOut(originalOut);
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMainRejectsUnknownAndIncompleteOptions() throws Exception {
+        Path file = Files.createTempFile("words", ".txt");
+        PrintStream originalOut = System.out;
+        try {
+            Files.write(file, "apple banana".getBytes());
+            String[][] badArgs = {
+                {"--parallel"},
+                {"--parallel", "--fast"},
+                {"--parallel", file.toString(), "two"},
+                {"--parallel", file.toString(), "1", "1", "extra"},
+                {"--fast", file.toString()},
+                {file.toString(), "--fast"},
+                {file.toString(), "--parallel"},
+                {"--fsat"},
+                {file.toString(), file.toString()},
+            };
+            for (String[] args : badArgs) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(out));
+                FastRandomWord.main(args);
+                System.setOut(originalOut);
+                assertTrue(out.toString().contains("Usage: java FastRandomWord"), String.join(" ", args) + ": " + out);
+            }
+        } finally {
+            System.setOut(originalOut);
+            Files.delete(file);
+        }
+    }
+}
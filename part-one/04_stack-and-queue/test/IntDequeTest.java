@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.PrimitiveIterator;
+
+public class IntDequeTest {
+
+    @Test
+    public void testIsEmptyAndSize() {
+        IntDeque deque = new IntDeque();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+        deque.addFirst(1);
+        assertFalse(deque.isEmpty());
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testAddFirstAndRemoveLast() {
+        IntDeque deque = new IntDeque();
+        deque.addFirst(1);
+        deque.addFirst(2);
+        assertEquals(1, deque.removeLast());
+        assertEquals(2, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testAddLastAndRemoveFirst() {
+        IntDeque deque = new IntDeque();
+        deque.addLast(1);
+        deque.addLast(2);
+        assertEquals(1, deque.removeFirst());
+        assertEquals(2, deque.removeFirst());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMatchesDequeThroughResizes() {
+        IntDeque primitive = new IntDeque();
+        Deque<Integer> boxed = new Deque<>();
+        java.util.Random rand = new java.util.Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int op = rand.nextInt(4);
+            if (op == 0 || boxed.isEmpty() && op >= 2) {
+                primitive.addFirst(i);
+                boxed.addFirst(i);
+            } else if (op == 1) {
+                primitive.addLast(i);
+                boxed.addLast(i);
+            } else if (op == 2) {
+                assertEquals((int) boxed.removeFirst(), primitive.removeFirst());
+            } else {
+                assertEquals((int) boxed.removeLast(), primitive.removeLast());
+            }
+            assertEquals(boxed.size(), primitive.size());
+        }
+        assertEquals(boxed.toString(), primitive.toString());
+    }
+
+    @Test
+    public void testRemoveOnEmptyThrows() {
+        IntDeque deque = new IntDeque();
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeFirst());
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeLast());
+    }
+
+    @Test
+    public void testIterator() {
+        IntDeque deque = new IntDeque();
+        deque.addLast(2);
+        deque.addLast(3);
+        deque.addFirst(1);
+        PrimitiveIterator.OfInt it = deque.iterator();
+        assertEquals(1, it.nextInt());
+        assertEquals(2, it.nextInt());
+        assertEquals(3, it.nextInt());
+        assertFalse(it.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, () -> it.nextInt());
+        assertThrows(UnsupportedOperationException.class, () -> it.remove());
+    }
+
+    @Test
+    public void testMainMethod() {
+        IntDeque.main(new String[]{});
+    }
+}
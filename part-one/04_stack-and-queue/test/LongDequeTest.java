@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.PrimitiveIterator;
+
+public class LongDequeTest {
+
+    @Test
+    public void testIsEmptyAndSize() {
+        LongDeque deque = new LongDeque();
+        assertTrue(deque.isEmpty());
+        assertEquals(0, deque.size());
+        deque.addFirst(1L);
+        assertFalse(deque.isEmpty());
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testAddFirstAndRemoveLast() {
+        LongDeque deque = new LongDeque();
+        deque.addFirst(1L);
+        deque.addFirst(2L);
+        assertEquals(1L, deque.removeLast());
+        assertEquals(2L, deque.removeLast());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testAddLastAndRemoveFirst() {
+        LongDeque deque = new LongDeque();
+        deque.addLast(1L);
+        deque.addLast(2L);
+        assertEquals(1L, deque.removeFirst());
+        assertEquals(2L, deque.removeFirst());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMatchesDequeThroughResizes() {
+        LongDeque primitive = new LongDeque();
+        Deque<Long> boxed = new Deque<>();
+        java.util.Random rand = new java.util.Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int op = rand.nextInt(4);
+            long value = i * 0x100000001L; // Outside the int range
+            if (op == 0 || boxed.isEmpty() && op >= 2) {
+                primitive.addFirst(value);
+                boxed.addFirst(value);
+            } else if (op == 1) {
+                primitive.addLast(value);
+                boxed.addLast(value);
+            } else if (op == 2) {
+                assertEquals((long) boxed.removeFirst(), primitive.removeFirst());
+            } else {
+                assertEquals((long) boxed.removeLast(), primitive.removeLast());
+            }
+            assertEquals(boxed.size(), primitive.size());
+        }
+        assertEquals(boxed.toString(), primitive.toString());
+    }
+
+    @Test
+    public void testWrapsAroundAFixedCapacity() {
+        LongDeque deque = new LongDeque(4);
+        for (int i = 1; i <= 4; i++) {
+            deque.addLast(i);
+        }
+        assertEquals(1L, deque.removeFirst());
+        assertEquals(2L, deque.removeFirst());
+        deque.addLast(5); // Stored at index 0, before the front
+        deque.addLast(6);
+        assertEquals("[3 4 5 6]", deque.toString());
+        assertEquals(6L, deque.removeLast());
+        deque.addFirst(2); // Back to index 1
+        assertEquals("[2 3 4 5]", deque.toString());
+        assertThrows(IllegalArgumentException.class, () -> new LongDeque(0));
+    }
+
+    @Test
+    public void testRemoveOnEmptyThrows() {
+        LongDeque deque = new LongDeque();
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeFirst());
+        assertThrows(java.util.NoSuchElementException.class, () -> deque.removeLast());
+    }
+
+    @Test
+    public void testIterator() {
+        LongDeque deque = new LongDeque();
+        deque.addLast(2L);
+        deque.addLast(3L);
+        deque.addFirst(1L);
+        PrimitiveIterator.OfLong it = deque.iterator();
+        assertEquals(1L, it.nextLong());
+        assertEquals(2L, it.nextLong());
+        assertEquals(3L, it.nextLong());
+        assertFalse(it.hasNext());
+        assertThrows(java.util.NoSuchElementException.class, () -> it.nextLong());
+        assertThrows(UnsupportedOperationException.class, () -> it.remove());
+    }
+
+    @Test
+    public void testMainMethod() {
+        LongDeque.main(new String[]{});
+    }
+}
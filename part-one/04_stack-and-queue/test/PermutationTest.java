@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class PermutationTest {
+
+    @Test
+    public void testMainInFastReservoirMode() throws IOException {
+        InputStream originalIn = System.in;
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setIn(new ByteArrayInputStream("A B C D E F G H I".getBytes()));
+        System.setOut(new PrintStream(out));
+        try {
+            Permutation.main(new String[]{"3", "--reservoir", "--fast"});
+        } finally {
+            System.setIn(originalIn);
+            System.setOut(originalOut);
+        }
+        String[] lines = out.toString().trim().split("\\s+");
+        assertEquals(3, lines.length);
+        assertEquals(3, new HashSet<>(Arrays.asList(lines)).size());
+        for (String line : lines) {
+            assertTrue(line.matches("[A-I]"), line);
+        }
+    }
+
+    @Test
+    public void testShardFilesRoundTripThroughMerge() throws IOException {
+        List<Path> files = new ArrayList<>();
+        PrintStream originalOut = System.out;
+        try {
+            String[] inputs = {"a1 a2 a3 a4 a5 a6", "b1 b2", "c1 c2 c3 c4 c5 c6 c7 c8 c9"};
+            for (String input : inputs) {
+                Path inputFile = Files.createTempFile("input", ".txt");
+                files.add(inputFile);
+                Files.write(inputFile, input.getBytes());
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(out));
+                Permutation.main(new String[]{"4", "--shard", inputFile.toString()});
+                System.setOut(originalOut);
+                Path shardFile = Files.createTempFile("shard", ".txt");
+                files.add(shardFile);
+                Files.write(shardFile, out.toByteArray());
+            }
+            String shard = new String(Files.readAllBytes(files.get(3)));
+            assertTrue(shard.startsWith("reservoir 2 2"), shard);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(out));
+            Permutation.main(new String[]{"4", "--merge", "--shard",
+                    files.get(1).toString(), files.get(3).toString(), files.get(5).toString()});
+            System.setOut(originalOut);
+            String[] lines = out.toString().trim().split("\\s+");
+            assertEquals("reservoir", lines[0]);
+            assertEquals("17", lines[1]);
+            assertEquals("4", lines[2]);
+            Set<String> distinct = new HashSet<>(Arrays.asList(lines).subList(3, lines.length));
+            assertEquals(4, distinct.size());
+            for (String token : distinct) {
+                assertTrue(token.matches("[abc][1-9]"), token);
+            }
+        } finally {
+            System.setOut(originalOut);
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testReadShardRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> Permutation.readShard(reader("hello 1 1 x"), 1));
+        assertThrows(IllegalArgumentException.class, () -> Permutation.readShard(reader("reservoir x 1 y"), 1));
+        assertThrows(IllegalArgumentException.class, () -> Permutation.readShard(reader("reservoir 5 2 y"), 1));
+        // Sampled with k = 2 out of 10, so it cannot be part of a 3-sample
+        assertThrows(IllegalArgumentException.class, () -> Permutation.readShard(reader("reservoir 10 2 x y"), 3));
+        Reservoir small = Permutation.readShard(reader("reservoir 2 2 x y"), 3);
+        assertEquals(2, small.count);
+        assertEquals(Arrays.asList("x", "y"), Arrays.asList(small.items));
+    }
+
+    @Test
+    public void testMainRejectsUnknownOptionsExtraFilesAndConflictingFlags() throws IOException {
+        Path file = Files.createTempFile("input", ".txt");
+        PrintStream originalOut = System.out;
+        try {
+            Files.write(file, "A B C".getBytes());
+            String[][] badArgs = {
+                {"2", "--reservior", file.toString()},
+                {"2", file.toString(), file.toString()},
+                {"2", "--reservoir", file.toString(), "extra.txt"},
+                {"2", "--fast", file.toString()},
+                {"3", file.toString(), "--fast"},
+                {"2", "--merge", "--reservoir", file.toString()},
+                {"2", "--fast", "--merge", file.toString()},
+            };
+            for (String[] args : badArgs) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                System.setOut(new PrintStream(out));
+                Permutation.main(args);
+                System.setOut(originalOut);
+                assertTrue(out.toString().contains("Usage: java Permutation"), String.join(" ", args) + ": " + out);
+            }
+        } finally {
+            System.setOut(originalOut);
+            Files.delete(file);
+        }
+    }
+
+    private static TokenReader reader(String input) {
+        return new TokenReader(new ByteArrayInputStream(input.getBytes()));
+    }
+}
@@ -177,4 +177,221 @@ public class RandomizedQueueTest {
         
         assertEquals(2, queue.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testInitialCapacity() {
+        RandomizedQueue<Integer> presized = new RandomizedQueue<>(5);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            presized.enqueue(i);
+            expected.add(i);
+        }
+        Set<Integer> dequeued = new HashSet<>();
+        while (!presized.isEmpty()) {
+            dequeued.add(presized.dequeue());
+        }
+        assertEquals(expected, dequeued);
+        assertThrows(IllegalArgumentException.class, () -> new RandomizedQueue<Integer>(0));
+    }
+
+    @Test
+    public void testResizePolicyAndTrimToSize() {
+        RandomizedQueue<Integer> neverShrink = new RandomizedQueue<>(1, ResizePolicy.NEVER_SHRINK);
+        for (int i = 0; i < 100; i++) {
+            neverShrink.enqueue(i);
+        }
+        int grows = neverShrink.resizeCount();
+        assertEquals(7, grows); // 1 -> 128
+        for (int i = 0; i < 97; i++) {
+            neverShrink.dequeue();
+        }
+        assertEquals(grows, neverShrink.resizeCount());
+        neverShrink.trimToSize();
+        assertEquals(grows + 1, neverShrink.resizeCount());
+        assertEquals(3, neverShrink.size());
+        assertTrue(neverShrink.copiedItemCount() >= 3);
+    }
+
+    @Test
+    public void testLazyIteratorReturnsEveryItemOnce() {
+        for (int n : new int[]{1, 2, 7, 8, 9, 100, 1000, 100000}) {
+            RandomizedQueue<Integer> q = new RandomizedQueue<>();
+            for (int i = 0; i < n; i++) {
+                q.enqueue(i);
+            }
+            Set<Integer> seen = new HashSet<>();
+            for (Integer item : q) {
+                assertTrue(seen.add(item), "duplicate " + item);
+            }
+            assertEquals(n, seen.size());
+        }
+    }
+
+    @Test
+    public void testLazyIteratorIsUniform() {
+        RandomizedQueue<Integer> q = new RandomizedQueue<>();
+        for (int i = 0; i < 4; i++) {
+            q.enqueue(i);
+        }
+        // Each item should come first, and second, about a quarter of the time
+        int trials = 40000;
+        int[][] counts = new int[2][4];
+        for (int t = 0; t < trials; t++) {
+            Iterator<Integer> it = q.iterator();
+            counts[0][it.next()]++;
+            counts[1][it.next()]++;
+        }
+        for (int[] position : counts) {
+            for (int count : position) {
+                assertEquals(trials / 4.0, count, trials * 0.02);
+            }
+        }
+    }
+
+    @Test
+    public void testLazyIteratorIsUniformWhileSparse() {
+        // With 1024 items the first 16 steps record their moves in the hash table, not in the dense array
+        RandomizedQueue<Integer> q = new RandomizedQueue<>(1, ResizePolicy.DEFAULT, RandomSource.xoshiro(9));
+        for (int i = 0; i < 1024; i++) {
+            q.enqueue(i);
+        }
+        int trials = 32000;
+        int[] counts = new int[1024];
+        for (int t = 0; t < trials; t++) {
+            Iterator<Integer> it = q.iterator();
+            for (int step = 0; step < 16; step++) {
+                counts[it.next()]++;
+            }
+        }
+        double expected = trials * 16 / 1024.0;
+        for (int i = 0; i < 1024; i++) {
+            assertEquals(expected, counts[i], expected * 0.2, "item " + i);
+        }
+    }
+
+    @Test
+    public void testIteratorKeepsTheItemsItStartedWith() {
+        for (int i = 0; i < 100; i++) {
+            queue.enqueue(i);
+        }
+        Iterator<Integer> it = queue.iterator();
+        Iterator<Integer> untouched = queue.iterator();
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(seen.add(it.next()));
+        }
+        // Enqueues, dequeues (which move items around the array) and resizes in the middle of the iteration
+        for (int i = 100; i < 300; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 280; i++) {
+            queue.dequeue();
+        }
+        while (it.hasNext()) {
+            assertTrue(seen.add(it.next()));
+        }
+        assertEquals(100, seen.size());
+        for (int item : seen) {
+            assertTrue(item >= 0 && item < 100, "item " + item);
+        }
+        Set<Integer> all = new HashSet<>();
+        untouched.forEachRemaining(all::add);
+        assertEquals(seen, all);
+        assertEquals(20, queue.size());
+    }
+
+    @Test
+    public void testIteratorSnapshotWithoutResize() {
+        // A presized queue never resizes, so dequeues would change the iterator's array in place if it were not copied
+        RandomizedQueue<Integer> q = new RandomizedQueue<>(64);
+        for (int i = 0; i < 8; i++) {
+            q.enqueue(i);
+        }
+        Iterator<Integer> it = q.iterator();
+        q.enqueue(8);
+        for (int i = 0; i < 5; i++) {
+            q.dequeue();
+        }
+        Set<Integer> seen = new HashSet<>();
+        it.forEachRemaining(seen::add);
+        assertEquals(8, seen.size());
+        for (int item : seen) {
+            assertTrue(item >= 0 && item < 8, "item " + item);
+        }
+        assertEquals(0, q.resizeCount());
+    }
+
+    @Test
+    public void testSeededSourceIsRepeatable() {
+        RandomizedQueue<Integer> first = new RandomizedQueue<>(RandomSource.xoshiro(42));
+        RandomizedQueue<Integer> second = new RandomizedQueue<>(RandomSource.xoshiro(42));
+        for (int i = 0; i < 100; i++) {
+            first.enqueue(i);
+            second.enqueue(i);
+        }
+        assertEquals(first.toString(), second.toString());
+        while (!first.isEmpty()) {
+            assertEquals(first.dequeue(), second.dequeue());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RandomizedQueue<Integer>(null));
+    }
+
+    @Test
+    public void testRandomSourcesStayInBounds() {
+        RandomSource[] sources = {
+            RandomSource.stdRandom(), RandomSource.threadLocal(), RandomSource.splittable(1), RandomSource.xoshiro(1)
+        };
+        for (RandomSource source : sources) {
+            int[] counts = new int[3];
+            for (int i = 0; i < 30000; i++) {
+                counts[source.nextInt(3)]++;
+            }
+            for (int count : counts) {
+                assertEquals(10000, count, 600);
+            }
+            assertEquals(0, source.nextInt(1));
+        }
+        RandomSource.Xoshiro256StarStar xoshiro = new RandomSource.Xoshiro256StarStar(7);
+        for (int i = 0; i < 1000; i++) {
+            int value = xoshiro.nextInt(Integer.MAX_VALUE);
+            assertTrue(value >= 0 && value < Integer.MAX_VALUE);
+        }
+        assertThrows(IllegalArgumentException.class, () -> xoshiro.nextInt(0));
+    }
+
+    @Test
+    public void testSampleWithoutReplacement() {
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        Integer[] sampled = new Integer[50];
+        queue.sample(sampled, 50);
+        assertEquals(50, new HashSet<>(java.util.Arrays.asList(sampled)).size());
+        assertEquals(1000, queue.size());
+
+        Integer[] all = new Integer[1000];
+        queue.sample(all, 1000);
+        assertEquals(1000, new HashSet<>(java.util.Arrays.asList(all)).size());
+        assertThrows(NoSuchElementException.class, () -> queue.sample(new Integer[1001], 1001));
+        assertThrows(IllegalArgumentException.class, () -> queue.sample(new Integer[1], 2));
+    }
+
+    @Test
+    public void testDequeueBatchResizesOnce() {
+        for (int i = 0; i < 1024; i++) {
+            queue.enqueue(i);
+        }
+        int resizes = queue.resizeCount();
+        Integer[] removed = new Integer[1000];
+        queue.dequeue(removed, 1000);
+        assertEquals(resizes + 1, queue.resizeCount()); // 1024 -> 32 in one step
+        assertEquals(24, queue.size());
+
+        Set<Integer> all = new HashSet<>(java.util.Arrays.asList(removed));
+        while (!queue.isEmpty()) {
+            all.add(queue.dequeue());
+        }
+        assertEquals(1024, all.size());
+        assertThrows(NoSuchElementException.class, () -> queue.dequeue(new Integer[1], 1));
+    }
+}
@@ -0,0 +1,179 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ReservoirTest {
+
+    private static List<String> tokens(int n) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            tokens.add(Integer.toString(i));
+        }
+        return tokens;
+    }
+
+    private static TokenReader reader(List<String> tokens) {
+        return new TokenReader(new ByteArrayInputStream(String.join("\n", tokens).getBytes()));
+    }
+
+    @Test
+    public void testSamplePicksDistinctTokensFromTheInput() {
+        Reservoir reservoir = Reservoir.sample(tokens(10000).iterator(), 50, RandomSource.xoshiro(1));
+        assertEquals(10000, reservoir.count);
+        String[] picked = reservoir.items;
+        assertEquals(50, picked.length);
+        Set<String> distinct = new HashSet<>(Arrays.asList(picked));
+        assertEquals(50, distinct.size());
+        for (String token : picked) {
+            int value = Integer.parseInt(token);
+            assertTrue(value >= 0 && value < 10000);
+        }
+    }
+
+    @Test
+    public void testSampleShorterThanKAndEmpty() {
+        Reservoir shorter = Reservoir.sample(tokens(3).iterator(), 5, RandomSource.xoshiro(2));
+        assertEquals(3, shorter.items.length);
+        assertEquals(3, shorter.count);
+        Reservoir none = Reservoir.sample(tokens(3).iterator(), 0, RandomSource.xoshiro(2));
+        assertEquals(0, none.items.length);
+        assertEquals(3, none.count);
+        assertEquals(0, Reservoir.sample(tokens(0).iterator(), 4, RandomSource.xoshiro(2)).items.length);
+    }
+
+    @Test
+    public void testSampleIsUniform() {
+        // Every token should be picked with probability k / n, including the first k and the last ones
+        final int n = 20;
+        final int k = 4;
+        final int trials = 50000;
+        RandomSource random = RandomSource.xoshiro(3);
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; t++) {
+            for (String token : Reservoir.sample(tokens(n).iterator(), k, random).items) {
+                counts[Integer.parseInt(token)]++;
+            }
+        }
+        double expected = (double) trials * k / n;
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected, counts[i], expected * 0.05, "token " + i);
+        }
+    }
+
+    @Test
+    public void testSampleOfOneThroughTokenReaderIsUniform() {
+        // The first, middle and last tokens must all win 1/n of the time, although few draws are made
+        final int n = 7;
+        final int trials = 35000;
+        RandomSource random = RandomSource.xoshiro(6);
+        int[] counts = new int[n];
+        for (int t = 0; t < trials; t++) {
+            Reservoir reservoir = Reservoir.sample(reader(tokens(n)), 1, random);
+            assertEquals(n, reservoir.count);
+            counts[Integer.parseInt(reservoir.items[0])]++;
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(trials / (double) n, counts[i], trials / (double) n * 0.06, "token " + i);
+        }
+    }
+
+    @Test
+    public void testSampleSkipsThroughTokenReader() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            input.append(i).append(i % 10 == 0 ? '\n' : ' ');
+        }
+        TokenReader reader = new TokenReader(new ByteArrayInputStream(input.toString().getBytes()), 256);
+        String[] picked = Reservoir.sample(reader, 20, RandomSource.xoshiro(4)).items;
+        assertEquals(20, picked.length);
+        assertEquals(20, new HashSet<>(Arrays.asList(picked)).size());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testMergeOfUnevenPartsIsUniform() {
+        // Parts of 2, 5 and 13 tokens: every token should end up in a 4-token sample with probability 4/20
+        final int[] partSizes = {2, 5, 13};
+        final int k = 4;
+        final int trials = 40000;
+        RandomSource random = RandomSource.xoshiro(7);
+        int[] counts = new int[20];
+        for (int t = 0; t < trials; t++) {
+            List<Reservoir> reservoirs = new ArrayList<>();
+            int first = 0;
+            for (int size : partSizes) {
+                reservoirs.add(Reservoir.sample(reader(tokens(first + size).subList(first, first + size)), k, random));
+                first += size;
+            }
+            Reservoir merged = Reservoir.merge(reservoirs, k, random);
+            assertEquals(20, merged.count);
+            for (String token : merged.items) {
+                counts[Integer.parseInt(token)]++;
+            }
+        }
+        double expected = trials * k / 20.0;
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected, counts[i], expected * 0.06, "token " + i);
+        }
+    }
+
+    @Test
+    public void testRunningMergeOfShardsIsUniform() {
+        // Shards of 3, 9 and 8 tokens merged one at a time: every token should be picked with probability k / 20
+        final int[] shardSizes = {3, 9, 8};
+        final int k = 5;
+        final int trials = 40000;
+        RandomSource random = RandomSource.xoshiro(5);
+        int[] counts = new int[20];
+        for (int t = 0; t < trials; t++) {
+            Reservoir merged = new Reservoir(0, new String[0]);
+            int first = 0;
+            for (int size : shardSizes) {
+                List<String> shard = tokens(first + size).subList(first, first + size);
+                merged = Reservoir.merge(Arrays.asList(merged, Reservoir.sample(shard.iterator(), k, random)), k, random);
+                first += size;
+            }
+            assertEquals(20, merged.count);
+            assertEquals(k, merged.items.length);
+            for (String token : merged.items) {
+                counts[Integer.parseInt(token)]++;
+            }
+        }
+        double expected = (double) trials * k / 20;
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected, counts[i], expected * 0.05, "token " + i);
+        }
+    }
+
+    @Test
+    public void testMergeEdgeCases() {
+        RandomSource random = RandomSource.xoshiro(8);
+        Reservoir none = Reservoir.merge(Collections.<Reservoir>emptyList(), 3, random);
+        assertEquals(0, none.count);
+        assertEquals(0, none.items.length);
+        // Fewer tokens than k in all: every one of them is kept
+        Reservoir all = Reservoir.merge(Arrays.asList(new Reservoir(1, new String[]{"x"}),
+                new Reservoir(0, new String[0]), new Reservoir(2, new String[]{"y", "z"})), 5, random);
+        assertEquals(3, all.count);
+        assertEquals(new HashSet<>(Arrays.asList("x", "y", "z")), new HashSet<>(Arrays.asList(all.items)));
+        // A 2-sample of 10 tokens cannot be part of a 3-sample
+        assertThrows(IllegalArgumentException.class,
+                () -> Reservoir.merge(Arrays.asList(new Reservoir(10, new String[]{"x", "y"})), 3, random));
+    }
+
+    @Test
+    public void testSkip() {
+        assertEquals(3, Reservoir.skip(tokens(5).iterator(), 3));
+        assertEquals(5, Reservoir.skip(tokens(5).iterator(), Long.MAX_VALUE));
+        TokenReader reader = reader(tokens(5));
+        assertEquals(2, Reservoir.skip(reader, 2));
+        assertEquals("2", reader.next());
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class StripedRandomizedQueueTest {
+
+    @Test
+    public void testEnqueueDequeueSingleThread() {
+        StripedRandomizedQueue<Integer> queue = new StripedRandomizedQueue<>(8);
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        assertEquals(1000, queue.size());
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(seen.add(queue.dequeue()));
+        }
+        assertEquals(1000, seen.size());
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testEmptyAndInvalidArguments() {
+        StripedRandomizedQueue<Integer> queue = new StripedRandomizedQueue<>();
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+        assertThrows(NoSuchElementException.class, queue::sample);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null));
+        assertThrows(IllegalArgumentException.class, () -> new StripedRandomizedQueue<Integer>(0));
+    }
+
+    @Test
+    public void testSampleDoesNotRemove() {
+        StripedRandomizedQueue<Integer> queue = new StripedRandomizedQueue<>(4);
+        queue.enqueue(7);
+        queue.enqueue(8);
+        for (int i = 0; i < 100; i++) {
+            int item = queue.sample();
+            assertTrue(item == 7 || item == 8);
+        }
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testDequeueIsUniformAcrossStripes() {
+        // Items land in stripes unevenly; the size-weighted stripe choice must hide that
+        final int n = 4;
+        final int trials = 40000;
+        int[] first = new int[n];
+        for (int t = 0; t < trials; t++) {
+            StripedRandomizedQueue<Integer> queue = new StripedRandomizedQueue<>(3);
+            for (int i = 0; i < n; i++) {
+                queue.enqueue(i);
+            }
+            first[queue.dequeue()]++;
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(trials / n, first[i], trials / 40, "item " + i);
+        }
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumersTakeEveryItemOnce() throws InterruptedException {
+        final int perProducer = 50000;
+        final int producerCount = 3;
+        final int consumerCount = 3;
+        final int n = perProducer * producerCount;
+        StripedRandomizedQueue<Integer> queue = new StripedRandomizedQueue<>(4);
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+        AtomicInteger done = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[producerCount + consumerCount];
+        for (int p = 0; p < producerCount; p++) {
+            final int base = p * perProducer;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    queue.enqueue(base + i);
+                }
+            });
+        }
+        for (int c = 0; c < consumerCount; c++) {
+            threads[producerCount + c] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (done.get() < n) {
+                    Integer item = queue.poll();
+                    if (item != null) {
+                        taken.incrementAndGet(item);
+                        done.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(20000);
+            assertFalse(thread.isAlive());
+        }
+
+        assertEquals(n, done.get());
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, taken.get(i), "item " + i);
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testMainMethod() throws InterruptedException {
+        StripedRandomizedQueue.main(new String[]{"2", "10000"});
+    }
+}
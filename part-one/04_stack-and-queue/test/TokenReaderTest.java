@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class TokenReaderTest {
+
+    private static TokenReader reader(String input, int bufferSize) {
+        return new TokenReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), bufferSize);
+    }
+
+    private static List<String> readAll(TokenReader reader) {
+        List<String> tokens = new ArrayList<>();
+        while (reader.hasNext()) {
+            tokens.add(reader.next());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void testSplitsOnAsciiWhitespace() {
+        String input = "  alpha\tbeta\r\ngamma\u000B\fdelta \u001Fepsilon  ";
+        for (int bufferSize : new int[]{1, 2, 3, 7, 64}) { // Tokens and whitespace across buffer boundaries
+            List<String> tokens = readAll(reader(input, bufferSize));
+            assertEquals(Arrays.asList("alpha", "beta", "gamma", "delta", "epsilon"), tokens, "buffer " + bufferSize);
+        }
+    }
+
+    @Test
+    public void testDecodesUtf8AndLongTokens() {
+        StringBuilder longToken = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longToken.append((char) ('a' + i % 26));
+        }
+        TokenReader reader = reader("Le caf\u00e9 \u4e2d\u6587 " + longToken, 5);
+        assertEquals(Arrays.asList("Le", "caf\u00e9", "\u4e2d\u6587", longToken.toString()), readAll(reader));
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    public void testSkip() {
+        TokenReader reader = reader("a b c d e f", 2);
+        assertEquals(2, reader.skip(2));
+        assertEquals("c", reader.next());
+        assertEquals(0, reader.skip(0));
+        assertEquals(3, reader.skip(10));
+        assertFalse(reader.hasNext());
+        assertEquals(0, reader.skip(1));
+        assertEquals(0, reader("   \n ", 4).skip(5));
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        Path file = Files.createTempFile("tokens", ".txt");
+        try {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 100000; i++) {
+                input.append("w").append(i).append(i % 7 == 0 ? "\n" : " ");
+            }
+            Files.write(file, input.toString().getBytes(StandardCharsets.UTF_8));
+            try (TokenReader reader = new TokenReader(file)) {
+                assertEquals("w0", reader.next());
+                assertEquals(99998, reader.skip(99998));
+                assertEquals("w99999", reader.next());
+                assertFalse(reader.hasNext());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testRangesReturnEveryTokenOnce() throws IOException {
+        Path file = Files.createTempFile("tokens", ".txt");
+        try {
+            String input = " ab  cde f\nghij k  lm\tnopq r ";
+            Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+            List<String> all = Arrays.asList("ab", "cde", "f", "ghij", "k", "lm", "nopq", "r");
+            for (int split = 0; split <= input.length(); split++) { // Every boundary, inside tokens too
+                List<String> tokens = new ArrayList<>();
+                try (TokenReader first = new TokenReader(file, 0, split);
+                     TokenReader second = new TokenReader(file, split, input.length())) {
+                    tokens.addAll(readAll(first));
+                    tokens.addAll(readAll(second));
+                }
+                assertEquals(all, tokens, "split at " + split);
+            }
+            try (TokenReader reader = new TokenReader(file, 5, 5)) {
+                assertFalse(reader.hasNext());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFailedRangeConstructionClosesTheFile() throws IOException {
+        // Reading the byte before the range of a directory fails after the channel is open (on Linux and macOS)
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        assumeTrue(os instanceof com.sun.management.UnixOperatingSystemMXBean, "needs the open file count");
+        com.sun.management.UnixOperatingSystemMXBean unix = (com.sun.management.UnixOperatingSystemMXBean) os;
+        Path directory = Files.createTempDirectory("tokens");
+        try {
+            long openBefore = unix.getOpenFileDescriptorCount();
+            int failures = 0;
+            for (int i = 0; i < 50; i++) {
+                try {
+                    new TokenReader(directory, 1, 100).close();
+                } catch (IOException | RuntimeException e) {
+                    failures++;
+                }
+            }
+            assumeTrue(failures == 50, "opening a directory did not fail here");
+            assertTrue(unix.getOpenFileDescriptorCount() < openBefore + 10,
+                    "file descriptors leaked: " + openBefore + " -> " + unix.getOpenFileDescriptorCount());
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenReader((java.io.InputStream) null));
+        assertThrows(IllegalArgumentException.class, () -> reader("a", 0));
+    }
+}
@@ -0,0 +1,174 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public class WeightedRandomizedQueueTest {
+
+    private static WeightedRandomizedQueue<Integer> seeded(long seed) {
+        return new WeightedRandomizedQueue<>(1, ResizePolicy.DEFAULT, RandomSource.xoshiro(seed));
+    }
+
+    @Test
+    public void testDequeueReturnsEveryItemOnce() {
+        WeightedRandomizedQueue<Integer> queue = seeded(1);
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i, 1 + i % 7);
+        }
+        assertEquals(1000, queue.size());
+        Set<Integer> seen = new HashSet<>();
+        while (!queue.isEmpty()) {
+            assertTrue(seen.add(queue.dequeue()));
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(0.0, queue.totalWeight());
+        assertThrows(NoSuchElementException.class, queue::dequeue);
+        assertThrows(NoSuchElementException.class, queue::sample);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        WeightedRandomizedQueue<Integer> queue = seeded(2);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(1, Double.POSITIVE_INFINITY));
+        queue.enqueue(1, Double.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> queue.enqueue(2, Double.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> new WeightedRandomizedQueue<Integer>(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WeightedRandomizedQueue<Integer>(1, null, RandomSource.xoshiro(0)));
+    }
+
+    @Test
+    public void testSampleIsProportionalToWeight() {
+        WeightedRandomizedQueue<Integer> queue = seeded(3);
+        for (int i = 0; i < 4; i++) {
+            queue.enqueue(i, i + 1); // Weights 1..4 out of 10
+        }
+        final int trials = 100000;
+        int[] counts = new int[4];
+        for (int t = 0; t < trials; t++) {
+            counts[queue.sample()]++;
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(trials * (i + 1) / 10.0, counts[i], trials / 100.0, "item " + i);
+        }
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    public void testFirstDequeueIsProportionalToWeight() {
+        // One dequeue from a fresh queue: the item of weight 3 out of 6 should come out half of the time
+        final int trials = 20000;
+        int heavyFirst = 0;
+        for (int t = 0; t < trials; t++) {
+            WeightedRandomizedQueue<Integer> queue = seeded(t);
+            queue.enqueue(0, 3);
+            queue.enqueue(1, 1);
+            queue.enqueue(2, 1);
+            queue.enqueue(3, 1);
+            if (queue.dequeue() == 0) {
+                heavyFirst++;
+            }
+        }
+        assertEquals(trials / 2.0, heavyFirst, trials / 50.0);
+    }
+
+    @Test
+    public void testSampleIsProportionalAfterDequeuesMoveSlots() {
+        // Item i has weight i + 1. Each dequeue moves the last item into the freed slot,
+        // so the tree must carry the moved weight to its new slot for the samples to stay proportional.
+        WeightedRandomizedQueue<Integer> queue = seeded(2);
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(i, i + 1);
+        }
+        // With this seed, both dequeues free a slot that is not the last one
+        int first = queue.dequeue();
+        assertNotEquals(5, first, "item 5 should move into the first freed slot");
+        int second = queue.dequeue();
+        assertNotEquals(4, second, "item 4 should move into the second freed slot");
+        double remainingWeight = 21 - (first + 1) - (second + 1);
+        assertEquals(remainingWeight, queue.totalWeight());
+
+        final int trials = 200000;
+        int[] counts = new int[6];
+        for (int t = 0; t < trials; t++) {
+            counts[queue.sample()]++;
+        }
+        for (int i = 0; i < 6; i++) {
+            double expected = i == first || i == second ? 0 : trials * (i + 1) / remainingWeight;
+            assertEquals(expected, counts[i], trials / 100.0, "item " + i);
+        }
+    }
+
+    @Test
+    public void testSampleIsProportionalAfterManyRebuilds() {
+        // Mixed enqueues and dequeues with weights that are not exact in binary (1/3, 0.1, ...),
+        // enough of them to rebuild the tree many times. The size stays within the initial capacity, so
+        // every rebuild comes from the update count, not from a resize.
+        WeightedRandomizedQueue<Integer> queue = new WeightedRandomizedQueue<>(64, ResizePolicy.DEFAULT, RandomSource.xoshiro(7));
+        SplittableRandom random = new SplittableRandom(7);
+        Map<Integer, Double> present = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            if (present.size() < 8 || random.nextInt(3) != 0) {
+                double weight = (1 + i % 7) / 3.0 + 0.1 * (i % 5);
+                queue.enqueue(i, weight);
+                present.put(i, weight);
+            } else {
+                assertNotNull(present.remove(queue.dequeue()));
+            }
+            if (present.size() == 64) {
+                while (present.size() > 8) {
+                    assertNotNull(present.remove(queue.dequeue()));
+                }
+            }
+        }
+        assertEquals(0, queue.resizeCount());
+        assertTrue(queue.rebuildCount() > 1000, queue.rebuildCount() + " rebuilds");
+
+        double exactTotal = 0;
+        for (double weight : present.values()) {
+            exactTotal += weight;
+        }
+        assertEquals(exactTotal, queue.totalWeight(), exactTotal * 1e-12);
+        final int trials = 200000;
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int t = 0; t < trials; t++) {
+            counts.merge(queue.sample(), 1, Integer::sum);
+        }
+        for (Map.Entry<Integer, Double> entry : present.entrySet()) {
+            double expected = trials * entry.getValue() / exactTotal;
+            assertEquals(expected, counts.getOrDefault(entry.getKey(), 0), trials / 100.0, "item " + entry.getKey());
+        }
+        assertEquals(present.size(), counts.size());
+    }
+
+    @Test
+    public void testTotalWeightStaysExactThroughResizes() {
+        WeightedRandomizedQueue<Integer> queue = seeded(4);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4096; i++) {
+                queue.enqueue(i, 0.5); // Exact in binary, so the sums have no rounding
+            }
+            while (queue.size() > 3) {
+                queue.dequeue();
+            }
+            assertEquals(1.5, queue.totalWeight());
+        }
+        assertTrue(queue.resizeCount() > 0);
+        queue.trimToSize();
+        assertEquals(1.5, queue.totalWeight());
+    }
+
+    @Test
+    public void testMainMethod() {
+        WeightedRandomizedQueue.main(new String[]{"1000"});
+    }
+}
@@ -0,0 +1,119 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class WorkStealingDequeTest {
+
+    @Test
+    public void testOwnerIsLifo() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2);
+        for (int i = 0; i < 100; i++) {
+            deque.addLast(i);
+        }
+        assertEquals(100, deque.size());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, deque.removeLast());
+        }
+        assertTrue(deque.isEmpty());
+        assertNull(deque.removeLast());
+        assertNull(deque.steal());
+    }
+
+    @Test
+    public void testStealIsFifo() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2);
+        for (int i = 0; i < 100; i++) {
+            deque.addLast(i);
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, deque.steal());
+        }
+        assertEquals(99, deque.removeLast());
+        assertEquals(49, deque.size());
+    }
+
+    @Test
+    public void testWrapAroundAfterSteals() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(4);
+        for (int round = 0; round < 1000; round++) {
+            deque.addLast(round);
+            deque.addLast(-round);
+            assertEquals(round, deque.steal());
+            assertEquals(-round, deque.removeLast());
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testNullItemThrows() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        assertThrows(IllegalArgumentException.class, () -> deque.addLast(null));
+        assertThrows(IllegalArgumentException.class, () -> new WorkStealingDeque<Integer>(0));
+    }
+
+    @Test
+    public void testConcurrentStealingTakesEveryItemOnce() throws InterruptedException {
+        final int n = 200000;
+        final int thiefCount = 3;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2); // Small, so it grows under contention
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+        AtomicInteger done = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] thieves = new Thread[thiefCount];
+        for (int t = 0; t < thiefCount; t++) {
+            thieves[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (done.get() < n) {
+                    Integer item = deque.steal();
+                    if (item != null) {
+                        taken.incrementAndGet(item);
+                        done.incrementAndGet();
+                    }
+                }
+            });
+            thieves[t].start();
+        }
+
+        start.countDown();
+        for (int i = 0; i < n; i++) {
+            deque.addLast(i);
+            if (i % 3 == 0) {
+                Integer item = deque.removeLast();
+                if (item != null) {
+                    taken.incrementAndGet(item);
+                    done.incrementAndGet();
+                }
+            }
+        }
+        while (done.get() < n) {
+            Integer item = deque.removeLast();
+            if (item != null) {
+                taken.incrementAndGet(item);
+                done.incrementAndGet();
+            }
+        }
+        for (Thread thief : thieves) {
+            thief.join(10000);
+            assertFalse(thief.isAlive());
+        }
+
+        assertEquals(n, done.get());
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, taken.get(i), "item " + i);
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testMainMethod() throws InterruptedException {
+        WorkStealingDeque.main(new String[]{"10000", "2"});
+    }
+}